@@ -0,0 +1,346 @@
+package com.iwellness.admin_events_api.carga;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prueba de carga de punta a punta: arranca el jar de la aplicacion contra una seguridad-ms simulada
+ * y un sumidero SMTP locales, siembra eventos y envia una mezcla de operaciones sobre /evento a tasa
+ * constante. Al final informa, por operacion, throughput y percentiles 50, 99 y 99.9 de latencia.
+ *
+ * Se configura con propiedades del sistema carga.* (ver README) y no necesita red externa.
+ */
+public final class PruebaCarga {
+
+    enum Operacion {
+        GET_PAGINA("GET /evento/pagina"),
+        GET_ID("GET /evento/{id}"),
+        POST("POST /evento"),
+        PUT("PUT /evento"),
+        PATCH("PATCH /evento/{id}"),
+        DELETE("DELETE /evento/{id}");
+
+        private final String etiqueta;
+
+        Operacion(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    private static final String MEZCLA_POR_DEFECTO = "GET_PAGINA=30,GET_ID=30,POST=15,PUT=10,PATCH=10,DELETE=5";
+
+    private static final int TAMANO_LOTE_SIEMBRA = 500;
+
+    private static final int CANTIDAD_ASISTENTES = 200;
+
+    private static final long INICIO_FECHAS = Instant.parse("2027-01-01T00:00:00Z").toEpochMilli();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final String base;
+
+    private final Map<Operacion, RegistroLatencias> registros = new EnumMap<>(Operacion.class);
+
+    // Ids vivos sobre los que se leen, editan y eliminan eventos
+    private final List<Long> ids = new ArrayList<>();
+
+    private PruebaCarga(String base) {
+        this.base = base;
+        for (Operacion operacion : Operacion.values()) {
+            registros.put(operacion, new RegistroLatencias());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tasa = entero("carga.tasa", 200);
+        int calentamiento = entero("carga.calentamiento-s", 10);
+        int duracion = entero("carga.duracion-s", 60);
+        int iniciales = entero("carga.eventos-iniciales", 2000);
+        Operacion[] ruleta = ruleta(System.getProperty("carga.mezcla", MEZCLA_POR_DEFECTO));
+        Path directorio = Path.of(System.getProperty("carga.directorio", "target/carga")).toAbsolutePath();
+        String jar = System.getProperty("carga.app.jar");
+        if (jar == null) {
+            throw new IllegalArgumentException("Falta carga.app.jar con la ruta del jar de la aplicacion");
+        }
+        Files.createDirectories(directorio);
+
+        try (SeguridadSimulada seguridad = new SeguridadSimulada(entero("carga.seguridad.demora-ms", 0));
+                SumideroSmtp smtp = new SumideroSmtp()) {
+            int puerto = puertoLibre();
+            Process aplicacion = iniciarAplicacion(jar, directorio, puerto, seguridad, smtp);
+            try {
+                PruebaCarga prueba = new PruebaCarga("http://127.0.0.1:" + puerto);
+                prueba.esperarAplicacion(aplicacion, Duration.ofSeconds(entero("carga.arranque-s", 180)));
+                prueba.sembrar(iniciales);
+                System.out.printf(Locale.ROOT, "Carga: %d pet/s, %d s de calentamiento y %d s medidos, %d eventos iniciales%n",
+                        tasa, calentamiento, duracion, iniciales);
+                prueba.ejecutar(ruleta, tasa, calentamiento, duracion);
+                prueba.informar(duracion, directorio.resolve("resultados.csv"));
+                System.out.printf(Locale.ROOT, "seguridad-ms simulada: %d consultas; SMTP: %d mensajes en %d conexiones%n",
+                        seguridad.consultas(), smtp.mensajes(), smtp.conexiones());
+            } finally {
+                aplicacion.destroy();
+                if (!aplicacion.waitFor(30, TimeUnit.SECONDS)) {
+                    aplicacion.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    private static Process iniciarAplicacion(String jar, Path directorio, int puerto, SeguridadSimulada seguridad,
+            SumideroSmtp smtp) throws IOException {
+        for (String archivo : List.of("eventos.db", "eventos.db-wal", "eventos.db-shm")) {
+            Files.deleteIfExists(directorio.resolve(archivo));
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(separar(System.getProperty("carga.app.jvm", "")));
+        comando.addAll(List.of("-jar", Path.of(jar).toAbsolutePath().toString(),
+                "--server.port=" + puerto,
+                "--seguridad.url=" + seguridad.url(),
+                "--spring.datasource.url=jdbc:sqlite:" + directorio.resolve("eventos.db"),
+                "--spring.mail.host=127.0.0.1",
+                "--spring.mail.port=" + smtp.puerto(),
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false"));
+        comando.addAll(separar(System.getProperty("carga.app.argumentos", "")));
+        return new ProcessBuilder(comando)
+                .directory(directorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(directorio.resolve("aplicacion.log").toFile())
+                .start();
+    }
+
+    private void esperarAplicacion(Process aplicacion, Duration limite) throws InterruptedException {
+        long fin = System.nanoTime() + limite.toNanos();
+        HttpRequest salud = HttpRequest.newBuilder(URI.create(base + "/actuator/health")).build();
+        while (System.nanoTime() < fin) {
+            if (!aplicacion.isAlive()) {
+                throw new IllegalStateException("La aplicacion termino al arrancar; ver aplicacion.log");
+            }
+            try {
+                if (cliente.send(salud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // todavia no escucha
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("La aplicacion no arranco en " + limite.toSeconds() + " s");
+    }
+
+    private void sembrar(int cantidad) throws IOException, InterruptedException {
+        for (int desde = 0; desde < cantidad; desde += TAMANO_LOTE_SIEMBRA) {
+            List<Map<String, Object>> lote = new ArrayList<>();
+            for (int i = desde; i < Math.min(cantidad, desde + TAMANO_LOTE_SIEMBRA); i++) {
+                lote.add(evento(null));
+            }
+            HttpResponse<String> respuesta = cliente.send(peticion("/evento/batch")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(lote))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("No se pudieron sembrar eventos: HTTP " + respuesta.statusCode());
+            }
+            for (JsonNode resultado : objectMapper.readTree(respuesta.body())) {
+                if (resultado.path("exitoso").asBoolean()) {
+                    agregarId(resultado.path("id").asLong());
+                }
+            }
+        }
+    }
+
+    /**
+     * Envia las peticiones a intervalos fijos sin esperar respuestas, cada una en su hilo virtual, de
+     * modo que la tasa no baja cuando el servidor se demora.
+     */
+    private void ejecutar(Operacion[] ruleta, int tasa, int calentamiento, int duracion) {
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / tasa;
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + TimeUnit.SECONDS.toNanos(calentamiento);
+        long fin = inicioMedicion + TimeUnit.SECONDS.toNanos(duracion);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long programada = inicio + i * intervalo;
+                if (programada >= fin) {
+                    break;
+                }
+                long espera = programada - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                Operacion operacion = ruleta[ThreadLocalRandom.current().nextInt(ruleta.length)];
+                boolean medir = programada >= inicioMedicion;
+                ejecutor.execute(() -> enviar(operacion, programada, medir));
+            }
+        }
+    }
+
+    private void enviar(Operacion operacion, long programada, boolean medir) {
+        boolean exitosa = false;
+        try {
+            HttpRequest peticion = construir(operacion);
+            HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+            exitosa = respuesta.statusCode() / 100 == 2;
+            if (exitosa && operacion == Operacion.POST) {
+                agregarId(objectMapper.readTree(respuesta.body()).path("id").asLong());
+            }
+        } catch (IOException e) {
+            // cuenta como error
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (medir) {
+            registros.get(operacion).registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - programada), exitosa);
+        }
+    }
+
+    private HttpRequest construir(Operacion operacion) throws IOException {
+        Long id = operacion == Operacion.DELETE ? quitarId() : operacion == Operacion.POST ? null : tomarId();
+        return switch (operacion) {
+            case GET_PAGINA -> peticion("/evento/pagina?limite=50").GET().build();
+            case GET_ID -> peticion("/evento/" + id).GET().build();
+            case POST -> peticion("/evento").POST(json(evento(null))).build();
+            case PUT -> peticion("/evento").PUT(json(evento(id))).build();
+            case PATCH -> peticion("/evento/" + id).method("PATCH",
+                    json(Map.of("titulo", "Editado " + System.nanoTime(), "duracion", 30 + ThreadLocalRandom.current().nextInt(90)))).build();
+            case DELETE -> peticion("/evento/" + id).DELETE().build();
+        };
+    }
+
+    private HttpRequest.Builder peticion(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer carga");
+    }
+
+    private HttpRequest.BodyPublisher json(Object cuerpo) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(cuerpo));
+    }
+
+    private Map<String, Object> evento(Long id) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Map<String, Object> evento = new LinkedHashMap<>();
+        if (id != null) {
+            evento.put("id", id);
+        }
+        evento.put("titulo", "Evento de carga " + aleatorio.nextInt(1_000_000));
+        evento.put("descripcion", "Generado por la prueba de carga");
+        evento.put("fecha", Instant.ofEpochMilli(INICIO_FECHAS + aleatorio.nextLong(TimeUnit.DAYS.toMillis(365)) / 60_000 * 60_000).toString()
+                .replace("Z", ".000Z"));
+        evento.put("duracion", 30 + aleatorio.nextInt(90));
+        evento.put("costo", aleatorio.nextInt(5000));
+        List<String> asistentes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            asistentes.add("asistente" + aleatorio.nextInt(CANTIDAD_ASISTENTES) + "@carga.local");
+        }
+        evento.put("asistentes", asistentes.stream().distinct().toList());
+        evento.put("tipo", "EVENTO");
+        evento.put("color", "#33aa66");
+        evento.put("activo", true);
+        return evento;
+    }
+
+    private synchronized void agregarId(long id) {
+        ids.add(id);
+    }
+
+    private synchronized Long tomarId() {
+        return ids.isEmpty() ? 0L : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    // Saca el id antes de eliminar para que las demas operaciones no lo elijan
+    private synchronized Long quitarId() {
+        if (ids.isEmpty()) {
+            return 0L;
+        }
+        int indice = ThreadLocalRandom.current().nextInt(ids.size());
+        Long id = ids.get(indice);
+        ids.set(indice, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        return id;
+    }
+
+    private void informar(int duracion, Path csv) throws IOException {
+        String formato = "%-22s %10s %8s %10s %10s %10s %10s %10s%n";
+        System.out.printf(Locale.ROOT, formato, "operacion", "peticiones", "errores", "pet/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        try (PrintWriter salida = new PrintWriter(Files.newBufferedWriter(csv))) {
+            salida.println("operacion,peticiones,errores,pet_s,p50_ms,p99_ms,p999_ms,max_ms");
+            for (Operacion operacion : Operacion.values()) {
+                RegistroLatencias.Resumen resumen = registros.get(operacion).resumir(duracion);
+                System.out.printf(Locale.ROOT, formato, operacion.etiqueta, resumen.peticiones(), resumen.errores(),
+                        String.format(Locale.ROOT, "%.1f", resumen.porSegundo()), ms(resumen.p50()), ms(resumen.p99()),
+                        ms(resumen.p999()), ms(resumen.maxima()));
+                salida.printf(Locale.ROOT, "%s,%d,%d,%.1f,%s,%s,%s,%s%n", operacion.etiqueta, resumen.peticiones(),
+                        resumen.errores(), resumen.porSegundo(), ms(resumen.p50()), ms(resumen.p99()),
+                        ms(resumen.p999()), ms(resumen.maxima()));
+            }
+        }
+        System.out.println("Resultados en " + csv);
+    }
+
+    private static String ms(long microsegundos) {
+        return String.format(Locale.ROOT, "%.2f", microsegundos / 1000.0);
+    }
+
+    private static Operacion[] ruleta(String mezcla) {
+        List<Operacion> ruleta = new ArrayList<>();
+        for (String parte : mezcla.split(",")) {
+            String[] claveValor = parte.trim().split("=");
+            Operacion operacion = Operacion.valueOf(claveValor[0].trim());
+            for (int i = Integer.parseInt(claveValor[1].trim()); i > 0; i--) {
+                ruleta.add(operacion);
+            }
+        }
+        if (ruleta.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones: " + mezcla);
+        }
+        return ruleta.toArray(Operacion[]::new);
+    }
+
+    private static int entero(String propiedad, int porDefecto) {
+        String valor = System.getProperty(propiedad);
+        return valor == null || valor.isBlank() ? porDefecto : Integer.parseInt(valor.trim());
+    }
+
+    private static List<String> separar(String argumentos) {
+        return argumentos.isBlank() ? List.of() : Arrays.asList(argumentos.trim().split("\\s+"));
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.iwellness.admin_events_api.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latencias en microsegundos de una operacion, medidas desde el instante en que la peticion debia
+ * salir segun la tasa (no desde que salio), asi una demora del servidor no oculta las esperas.
+ */
+final class RegistroLatencias {
+
+    private long[] latencias = new long[1024];
+
+    private int cantidad;
+
+    private long errores;
+
+    synchronized void registrar(long microsegundos, boolean exitosa) {
+        if (!exitosa) {
+            errores++;
+        }
+        if (cantidad == latencias.length) {
+            latencias = Arrays.copyOf(latencias, cantidad * 2);
+        }
+        latencias[cantidad++] = microsegundos;
+    }
+
+    synchronized Resumen resumir(double segundos) {
+        long[] ordenadas = Arrays.copyOf(latencias, cantidad);
+        Arrays.sort(ordenadas);
+        return new Resumen(cantidad, errores, cantidad / segundos, percentil(ordenadas, 0.50),
+                percentil(ordenadas, 0.99), percentil(ordenadas, 0.999), cantidad == 0 ? 0 : ordenadas[cantidad - 1]);
+    }
+
+    private static long percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+
+    record Resumen(long peticiones, long errores, double porSegundo, long p50, long p99, long p999, long maxima) {
+    }
+}
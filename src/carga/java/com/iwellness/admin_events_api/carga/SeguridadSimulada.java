@@ -0,0 +1,61 @@
+package com.iwellness.admin_events_api.carga;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Reemplazo local de seguridad-ms: GET /auth/info responde siempre un usuario Admin, opcionalmente
+ * con una demora fija para simular un servicio lento.
+ */
+final class SeguridadSimulada implements AutoCloseable {
+
+    private static final byte[] USUARIO = "{\"id\":1,\"nombre\":\"carga\",\"correo\":\"carga@local\",\"rol\":{\"nombre\":\"Admin\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer servidor;
+
+    private final AtomicLong consultas = new AtomicLong();
+
+    SeguridadSimulada(long demoraMs) throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/auth/info", intercambio -> responder(intercambio, demoraMs));
+        servidor.start();
+    }
+
+    private void responder(HttpExchange intercambio, long demoraMs) throws IOException {
+        consultas.incrementAndGet();
+        if (demoraMs > 0) {
+            try {
+                Thread.sleep(demoraMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, USUARIO.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(USUARIO);
+        }
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort() + "/auth";
+    }
+
+    long consultas() {
+        return consultas.get();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.iwellness.admin_events_api.carga;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor SMTP minimo que acepta y descarta todos los mensajes, sin autenticacion ni STARTTLS,
+ * para que el despacho de notificaciones no salga de la maquina.
+ */
+final class SumideroSmtp implements AutoCloseable {
+
+    private final ServerSocket servidor;
+
+    private final AtomicLong mensajes = new AtomicLong();
+
+    private final AtomicLong conexiones = new AtomicLong();
+
+    SumideroSmtp() throws IOException {
+        servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("sumidero-smtp").start(this::aceptar);
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                conexiones.incrementAndGet();
+                Thread.ofVirtual().start(() -> atender(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket;
+                BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream salida = socket.getOutputStream()) {
+            escribir(salida, "220 sumidero ESMTP");
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String comando = linea.length() >= 4 ? linea.substring(0, 4).toUpperCase() : linea.toUpperCase();
+                switch (comando) {
+                    case "EHLO", "HELO" -> escribir(salida, "250 sumidero");
+                    case "DATA" -> {
+                        escribir(salida, "354 fin con <CRLF>.<CRLF>");
+                        while ((linea = entrada.readLine()) != null && !linea.equals(".")) {
+                            // el contenido se descarta
+                        }
+                        mensajes.incrementAndGet();
+                        escribir(salida, "250 aceptado");
+                    }
+                    case "QUIT" -> {
+                        escribir(salida, "221 adios");
+                        return;
+                    }
+                    default -> escribir(salida, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // el cliente cerro la conexion
+        }
+    }
+
+    private static void escribir(OutputStream salida, String respuesta) throws IOException {
+        salida.write((respuesta + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        salida.flush();
+    }
+
+    int puerto() {
+        return servidor.getLocalPort();
+    }
+
+    long mensajes() {
+        return mensajes.get();
+    }
+
+    long conexiones() {
+        return conexiones.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.iwellness.admin_events_api;
+
+import java.io.File;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta los benchmarks una vez por cada cantidad de hilos de jmh.hilos (por ejemplo "1,4,8"),
+ * con el perfilador de GC para informar la tasa de asignacion junto al throughput. Los resultados
+ * quedan en jmh.resultados como un JSON por cantidad de hilos.
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String incluir = System.getProperty("jmh.incluir", ".*");
+        File resultados = new File(System.getProperty("jmh.resultados", "target/jmh"));
+        resultados.mkdirs();
+        for (String hilos : System.getProperty("jmh.hilos", "1,4").split(",")) {
+            int cantidad = Integer.parseInt(hilos.trim());
+            Options opciones = new OptionsBuilder()
+                    .include(incluir)
+                    .threads(cantidad)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultados, "resultados-" + cantidad + "-hilos.json").getPath())
+                    .build();
+            new Runner(opciones).run();
+        }
+    }
+}
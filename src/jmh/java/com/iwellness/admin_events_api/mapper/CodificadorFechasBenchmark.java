@@ -0,0 +1,42 @@
+package com.iwellness.admin_events_api.mapper;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+
+/**
+ * Formato y lectura de fechas de la API, presentes en cada conversion de eventos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodificadorFechasBenchmark {
+
+    private final Date fecha = new Date(1804339800000L);
+
+    private final String texto = "2027-03-15T14:30:00.000Z";
+
+    @Benchmark
+    public String formatear() {
+        return CodificadorFechas.formatear(fecha);
+    }
+
+    @Benchmark
+    public Date parsear() throws FormatoFechaInvalidoException {
+        return CodificadorFechas.parsear(texto);
+    }
+}
@@ -0,0 +1,70 @@
+package com.iwellness.admin_events_api.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.iwellness.admin_events_api.dto.EventoDTO;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.RecurrenciaInvalidaException;
+
+/**
+ * Conversion entre EventoDTO y Evento, que se hace por cada evento de las altas, ediciones y listados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventoMapperBenchmark {
+
+    private EventoDTO eventoDto;
+
+    private EventoDTO serieDto;
+
+    private Evento evento;
+
+    @Setup
+    public void preparar() throws FormatoFechaInvalidoException, RecurrenciaInvalidaException {
+        List<String> asistentes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            asistentes.add("asistente" + i + "@correo.com");
+        }
+        eventoDto = new EventoDTO(1L, "Taller de meditacion", "Sesion guiada para principiantes",
+                "2027-03-15T14:30:00.000Z", 90L, 1500L, asistentes, TipoEvento.EVENTO, "#33aa66", true, null);
+        serieDto = new EventoDTO(2L, "Reunion semanal", "Seguimiento del equipo",
+                "2027-03-15T14:30:00.000Z", 30L, 0L, asistentes, TipoEvento.REUNION, "#3366aa", true,
+                "RRULE:FREQ=WEEKLY;BYDAY=MO,WE;COUNT=40");
+        evento = EventoMapper.eventoDtoToEvento(eventoDto);
+        evento.setActivo(true);
+    }
+
+    @Benchmark
+    public Evento dtoAEvento() throws FormatoFechaInvalidoException, RecurrenciaInvalidaException {
+        return EventoMapper.eventoDtoToEvento(eventoDto);
+    }
+
+    @Benchmark
+    public Evento dtoAEventoConRecurrencia() throws FormatoFechaInvalidoException, RecurrenciaInvalidaException {
+        return EventoMapper.eventoDtoToEvento(serieDto);
+    }
+
+    @Benchmark
+    public EventoDTO eventoADto() {
+        return EventoMapper.eventoToEventoDto(evento);
+    }
+}
@@ -0,0 +1,83 @@
+package com.iwellness.admin_events_api.mapper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwellness.admin_events_api.dto.EventoDTO;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+/**
+ * Respuesta de GET /evento: conversion de las entidades y serializacion JSON de la lista, con el
+ * mismo ObjectMapper base que arma Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionEventosBenchmark {
+
+    @Param({"100", "5000"})
+    private int cantidad;
+
+    private ObjectMapper objectMapper;
+
+    private List<Evento> eventos;
+
+    private List<EventoDTO> eventosDto;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        eventos = new ArrayList<>(cantidad);
+        long inicio = 1804339800000L;
+        for (int i = 0; i < cantidad; i++) {
+            List<String> asistentes = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                asistentes.add("asistente" + ((i + j) % 500) + "@correo.com");
+            }
+            eventos.add(Evento.builder()
+                    .id((long) i)
+                    .titulo("Evento " + i)
+                    .descripcion("Descripcion del evento " + i)
+                    .fecha(new Date(inicio + i * 3_600_000L))
+                    .duracion(60L)
+                    .costo(1000L)
+                    .asistentes(asistentes)
+                    .tipo(i % 3 == 0 ? TipoEvento.REUNION : TipoEvento.EVENTO)
+                    .color("#33aa66")
+                    .activo(true)
+                    .build());
+        }
+        eventosDto = eventos.stream().map(EventoMapper::eventoToEventoDto).toList();
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventosDto);
+    }
+
+    @Benchmark
+    public byte[] convertirYSerializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventos.stream().map(EventoMapper::eventoToEventoDto).toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+
+/**
+ * Actualizacion de campos de PATCH /evento/{id}: validacion de las claves, conversion de los valores
+ * JSON y comparacion con el estado actual. Cada hilo alterna entre dos cuerpos para que todos los
+ * campos cambien en cada llamada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CamposEditablesEventoBenchmark {
+
+    private Evento evento;
+
+    private Map<String, Object> cambiosA;
+
+    private Map<String, Object> cambiosB;
+
+    private Map<String, Object> soloTitulo;
+
+    private boolean alternar;
+
+    @Setup
+    public void preparar() {
+        evento = Evento.builder()
+                .id(1L)
+                .titulo("Taller")
+                .activo(true)
+                .asistentes(new ArrayList<>())
+                .build();
+        cambiosA = Map.of("titulo", "Taller de yoga", "descripcion", "Nivel inicial",
+                "fecha", "2027-03-15T14:30:00.000Z", "duracion", 60, "costo", 1500,
+                "asistentes", asistentes("a"), "tipo", "EVENTO", "color", "#33aa66");
+        cambiosB = Map.of("titulo", "Taller de pilates", "descripcion", "Nivel medio",
+                "fecha", "2027-03-16T09:00:00.000Z", "duracion", 90, "costo", 2000,
+                "asistentes", asistentes("b"), "tipo", "REUNION", "color", "#3366aa");
+        soloTitulo = Map.of("titulo", "Taller");
+    }
+
+    @Benchmark
+    public Set<String> aplicarTodosLosCampos() throws CampoNoEditableException, FormatoFechaInvalidoException {
+        alternar = !alternar;
+        return CamposEditablesEvento.aplicar(evento, alternar ? cambiosA : cambiosB);
+    }
+
+    @Benchmark
+    public Set<String> aplicarUnCampo() throws CampoNoEditableException, FormatoFechaInvalidoException {
+        return CamposEditablesEvento.aplicar(evento, soloTitulo);
+    }
+
+    private static List<String> asistentes(String prefijo) {
+        List<String> asistentes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            asistentes.add(prefijo + i + "@correo.com");
+        }
+        return asistentes;
+    }
+}
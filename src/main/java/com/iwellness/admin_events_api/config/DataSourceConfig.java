@@ -2,57 +2,100 @@ package com.iwellness.admin_events_api.config;
 
 import javax.sql.DataSource;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.sqlite.SQLiteConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * DataSource del almacenamiento SQLite, activo por defecto. Con otro valor de
+ * almacenamiento.tipo (perfil postgres o test) se usa el DataSource de Spring Boot
+ * configurado con spring.datasource.*.
+ */
 @Configuration
+@ConditionalOnProperty(name = "almacenamiento.tipo", havingValue = "sqlite", matchIfMissing = true)
 public class DataSourceConfig {
-    
-    @Autowired 
-    Environment env;
 
-    @Bean
-    public DataSource dataSource() {        
-        final DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.sqlite.JDBC");
-        
-        // Determinar si estamos en un contexto de test
-        boolean isTestContext = isTestContext();
-        
-        // URL de la base de datos
-        String url = isTestContext 
-                ? "jdbc:sqlite:iwellness_admin_events_api_test.db"
-                : "jdbc:sqlite:iwellness_admin_events_api.db";
-        
-        dataSource.setUrl(url);        
-        return dataSource;
+    @Value("${spring.datasource.url:jdbc:sqlite:iwellness_admin_events_api.db}")
+    private String url;
+
+    @Value("${sqlite.pool.lectura.tamano:8}")
+    private int tamanoPoolLectura;
+
+    @Value("${sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    @Value("${sqlite.cache-size-kb:16384}")
+    private int cacheSizeKb;
+
+    @Value("${sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    /**
+     * Pool de una sola conexion: SQLite admite un unico escritor, asi las escrituras
+     * esperan su turno en el pool en lugar de fallar con SQLITE_BUSY.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSourceEscritura() {
+        SQLiteConfig config = configuracionBase();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return crearPool("sqlite-escritura", config, 1, false);
     }
-    
+
     /**
-     * Detecta si estamos en un contexto de test
+     * Pool de conexiones de solo lectura que en modo WAL leen en paralelo con el escritor.
+     * Depende del pool de escritura para que el modo WAL quede activado antes de abrirlas.
      */
-    private boolean isTestContext() {
-        // Método 1: Verificar si estamos en un perfil "test"
-        for (String profile : env.getActiveProfiles()) {
-            if ("test".equals(profile)) {
-                return true;
-            }
-        }
-        
-        // Método 2: Verificar la pila de llamadas para buscar clases de test
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        for (StackTraceElement element : stackTrace) {
-            String className = element.getClassName();
-            if (className.contains("Test") || className.contains("MockitoJUnitRunner") ||
-                className.contains("SpringRunner") || className.contains("JUnit")) {
-                return true;
-            }
-        }
-        
-        // Método 3: Verificar si hay propiedades específicas de test en el environment
-        return env.containsProperty("spring.test.context.cache.maxSize");
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSourceLectura(@Qualifier("dataSourceEscritura") HikariDataSource dataSourceEscritura) {
+        SQLiteConfig config = configuracionBase();
+        config.setReadOnly(true);
+        return crearPool("sqlite-lectura", config, tamanoPoolLectura, true);
+    }
+
+    /**
+     * Las transacciones readOnly obtienen su conexion del pool de lectura y el resto del de escritura.
+     * La conexion se pide recien al ejecutar la primera sentencia, cuando ya se conoce el tipo de transaccion.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourceEscritura") HikariDataSource dataSourceEscritura,
+            @Qualifier("dataSourceLectura") HikariDataSource dataSourceLectura) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(dataSourceEscritura);
+        dataSource.setReadOnlyDataSource(dataSourceLectura);
+        return dataSource;
+    }
+
+    private SQLiteConfig configuracionBase() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(busyTimeoutMs);
+        // Un valor negativo indica el tamaño de la cache en KiB en lugar de paginas
+        config.setCacheSize(-cacheSizeKb);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        return config;
+    }
+
+    private HikariDataSource crearPool(String nombre, SQLiteConfig sqliteConfig, int tamano, boolean soloLectura) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nombre);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl(url);
+        config.setDataSourceProperties(sqliteConfig.toProperties());
+        config.setMaximumPoolSize(tamano);
+        config.setMinimumIdle(tamano);
+        // SQLite no permite cambiar el modo de solo lectura una vez abierta la conexion,
+        // por lo que Hikari debe usar el mismo valor con el que se abrio
+        config.setReadOnly(soloLectura);
+        return new HikariDataSource(config);
     }
 }
@@ -2,24 +2,29 @@ package com.iwellness.admin_events_api.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import jakarta.servlet.http.HttpServletRequest;
 
+/**
+ * Reenvia el token de la peticion en curso. La peticion se toma del hilo actual, que con hilos
+ * virtuales tambien es el que atiende la peticion; si la llamada se hace fuera de una peticion
+ * (por ejemplo desde una tarea programada) se envia sin token en lugar de fallar.
+ */
 @Component
 public class FeignClientInterceptor implements RequestInterceptor {
 
-    @Autowired
-    private HttpServletRequest request;
-
     private static final Logger logger = LoggerFactory.getLogger(FeignClientInterceptor.class);
 
     @Override
     public void apply(RequestTemplate template) {
-        String token = request.getHeader("Authorization");
+        String token = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            token = atributos.getRequest().getHeader("Authorization");
+        }
         if (token != null) {
             template.header("Authorization", token);
             logger.info("Token JWT añadido a la solicitud Feign: " + token);
@@ -0,0 +1,95 @@
+package com.iwellness.admin_events_api.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Con una base de servidor los ids salen de una secuencia real, reservados en bloques para
+ * que los INSERT se puedan agrupar en lotes sin consultar la secuencia por cada fila.
+ *
+ * En SQLite no hay secuencias y Hibernate las emula con una tabla que actualiza en una
+ * conexion aparte, lo que se bloquea con el pool de un solo escritor. Como con SQLite hay
+ * una unica instancia escribiendo, los ids se asignan en memoria a partir del mayor id
+ * existente, leido con la conexion de la transaccion en curso.
+ */
+public class GeneradorIdsSecuencia extends SequenceStyleGenerator {
+
+    private final String secuencia;
+    private final int bloque;
+
+    private boolean enMemoria;
+    private String tabla;
+    private String columnaId;
+    private Long ultimoId;
+
+    public GeneradorIdsSecuencia(IdSecuencia anotacion) {
+        this.secuencia = anotacion.nombre();
+        this.bloque = anotacion.bloque();
+    }
+
+    @Override
+    public void configure(Type type, Properties parametros, ServiceRegistry serviceRegistry) throws MappingException {
+        enMemoria = serviceRegistry.requireService(JdbcEnvironment.class).getDialect() instanceof SQLiteDialect;
+        if (enMemoria) {
+            tabla = parametros.getProperty(PersistentIdentifierGenerator.TABLE);
+            columnaId = parametros.getProperty(PersistentIdentifierGenerator.PK);
+            return;
+        }
+        parametros.setProperty(SEQUENCE_PARAM, secuencia);
+        parametros.setProperty(INCREMENT_PARAM, String.valueOf(bloque));
+        super.configure(type, parametros, serviceRegistry);
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        if (!enMemoria) {
+            super.registerExportables(database);
+        }
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        if (!enMemoria) {
+            super.initialize(context);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object objeto) {
+        if (!enMemoria) {
+            return super.generate(session, objeto);
+        }
+        synchronized (this) {
+            if (ultimoId == null) {
+                ultimoId = leerMayorId(session);
+            }
+            return ++ultimoId;
+        }
+    }
+
+    private long leerMayorId(SharedSessionContractImplementor session) {
+        String sql = "select coalesce(max(" + columnaId + "), 0) from " + tabla;
+        Connection conexion = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql);
+                ResultSet rs = sentencia.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "No se pudo leer el mayor id de " + tabla, sql);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.iwellness.admin_events_api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Id asignado desde la secuencia indicada en bloques de {@link #bloque()} valores.
+ * Ver {@link GeneradorIdsSecuencia}.
+ */
+@IdGeneratorType(GeneradorIdsSecuencia.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdSecuencia {
+
+    String nombre();
+
+    int bloque() default 50;
+}
@@ -0,0 +1,51 @@
+package com.iwellness.admin_events_api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Crea el indice FTS5 de titulo y descripcion sobre la tabla usuarios y los triggers que lo
+ * actualizan, asi cualquier escritura (individual, por lotes o SQL directo) queda indexada
+ * sin pasar por la aplicacion. La primera vez indexa los eventos ya existentes.
+ */
+@Component
+@ConditionalOnProperty(name = "almacenamiento.tipo", havingValue = "sqlite", matchIfMissing = true)
+public class IndiceBusquedaEventos implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceBusquedaEventos.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Integer existe = jdbcTemplate.queryForObject(
+                "select count(*) from sqlite_master where type = 'table' and name = 'eventos_fts'", Integer.class);
+        jdbcTemplate.execute("create virtual table if not exists eventos_fts using fts5(titulo, descripcion,"
+                + " content = 'usuarios', content_rowid = 'id_usuarios', tokenize = 'unicode61 remove_diacritics 2')");
+        jdbcTemplate.execute("create trigger if not exists eventos_fts_insercion after insert on usuarios begin"
+                + " insert into eventos_fts (rowid, titulo, descripcion) values (new.id_usuarios, new.titulo, new.descripcion);"
+                + " end");
+        jdbcTemplate.execute("create trigger if not exists eventos_fts_borrado after delete on usuarios begin"
+                + " insert into eventos_fts (eventos_fts, rowid, titulo, descripcion) values ('delete', old.id_usuarios, old.titulo, old.descripcion);"
+                + " end");
+        // Hibernate actualiza todas las columnas; solo se reindexa si cambio el texto
+        jdbcTemplate.execute("create trigger if not exists eventos_fts_actualizacion after update on usuarios"
+                + " when old.titulo is not new.titulo or old.descripcion is not new.descripcion begin"
+                + " insert into eventos_fts (eventos_fts, rowid, titulo, descripcion) values ('delete', old.id_usuarios, old.titulo, old.descripcion);"
+                + " insert into eventos_fts (rowid, titulo, descripcion) values (new.id_usuarios, new.titulo, new.descripcion);"
+                + " end");
+        if (existe == null || existe == 0) {
+            jdbcTemplate.execute("insert into eventos_fts (eventos_fts) values ('rebuild')");
+            logger.info("Indice de busqueda eventos_fts creado");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.iwellness.admin_events_api.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.iwellness.admin_events_api.servicios.EstadisticasEventos;
+
+/**
+ * Calcula la tabla de estadisticas la primera vez que arranca con eventos existentes; despues la
+ * mantienen las escrituras de eventos.
+ */
+@Component
+public class InicializacionEstadisticas implements ApplicationRunner {
+
+    @Autowired
+    private EstadisticasEventos estadisticas;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        estadisticas.reconstruirSiVacia();
+    }
+}
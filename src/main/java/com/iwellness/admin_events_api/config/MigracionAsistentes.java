@@ -0,0 +1,99 @@
+package com.iwellness.admin_events_api.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Migra los asistentes guardados en la columna serializada usuarios.asistentes
+ * a la tabla evento_asistentes. Cada fila migrada queda con la columna en NULL,
+ * por lo que en los siguientes arranques no hay nada que procesar.
+ */
+@Component
+public class MigracionAsistentes implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionAsistentes.class);
+
+    private static final ObjectInputFilter FILTRO_LISTAS = ObjectInputFilter.Config
+            .createFilter("maxdepth=5;java.util.*;java.lang.String;java.lang.Object;!*");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!existeColumnaLegada()) {
+            return;
+        }
+        List<FilaLegada> filas = jdbcTemplate.query(
+                "select id_usuarios, asistentes from usuarios where asistentes is not null",
+                (rs, i) -> new FilaLegada(rs.getLong(1), rs.getBytes(2)));
+        int migrados = 0;
+        for (FilaLegada fila : filas) {
+            List<String> asistentes = deserializar(fila);
+            if (asistentes == null) {
+                continue;
+            }
+            Integer existentes = jdbcTemplate.queryForObject(
+                    "select count(*) from evento_asistentes where evento_id = ?", Integer.class, fila.idEvento());
+            if (existentes == null || existentes == 0) {
+                for (String correo : asistentes) {
+                    jdbcTemplate.update("insert into evento_asistentes (evento_id, correo) values (?, ?)", fila.idEvento(), correo);
+                }
+            }
+            jdbcTemplate.update("update usuarios set asistentes = null where id_usuarios = ?", fila.idEvento());
+            migrados++;
+        }
+        if (migrados > 0) {
+            logger.info("Asistentes migrados a evento_asistentes para {} eventos", migrados);
+        }
+    }
+
+    private boolean existeColumnaLegada() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metaData = conexion.getMetaData();
+            for (String tabla : List.of("usuarios", "USUARIOS")) {
+                for (String columna : List.of("asistentes", "ASISTENTES")) {
+                    try (ResultSet rs = metaData.getColumns(null, null, tabla, columna)) {
+                        if (rs.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    private List<String> deserializar(FilaLegada fila) {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(fila.asistentes()))) {
+            entrada.setObjectInputFilter(FILTRO_LISTAS);
+            Object valor = entrada.readObject();
+            if (valor instanceof List<?> lista) {
+                return lista.stream().filter(String.class::isInstance).map(String.class::cast).toList();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            logger.warn("No se pudieron leer los asistentes legados del evento {}", fila.idEvento(), e);
+            return null;
+        }
+        return List.of();
+    }
+
+    private record FilaLegada(Long idEvento, byte[] asistentes) {
+    }
+}
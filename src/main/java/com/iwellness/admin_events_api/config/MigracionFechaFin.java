@@ -0,0 +1,79 @@
+package com.iwellness.admin_events_api.config;
+
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Completa la columna fecha_fin de los eventos guardados antes de que existiera. Se actualiza
+ * sin pasar por la entidad, asi no cambia la version ni el ETag de esos eventos.
+ *
+ * Los eventos se recorren por id en lotes y cada lote confirma en su propia transaccion, asi no
+ * se cargan todas las filas a la vez ni se retiene la escritura de SQLite durante toda la
+ * migracion; si se interrumpe, el siguiente arranque sigue con las filas que faltan.
+ */
+@Component
+public class MigracionFechaFin implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionFechaFin.class);
+
+    private static final int TAMANO_LOTE = 200;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long ultimoId = Long.MIN_VALUE;
+        int total = 0;
+        while (true) {
+            long desde = ultimoId;
+            List<Object[]> filas = transaccion.execute(estado -> completarLote(desde));
+            if (filas.isEmpty()) {
+                break;
+            }
+            total += filas.size();
+            ultimoId = (Long) filas.get(filas.size() - 1)[0];
+        }
+        if (total > 0) {
+            logger.info("fecha_fin calculada para {} eventos", total);
+        }
+    }
+
+    /**
+     * Completa el lote de eventos sin fecha_fin que sigue a ultimoId y lo devuelve.
+     */
+    private List<Object[]> completarLote(long ultimoId) {
+        List<Object[]> filas = entityManager.createQuery(
+                "select e.id, e.fecha, e.duracion from Evento e where e.fechaFin is null and e.fecha is not null"
+                + " and e.id > :ultimoId order by e.id", Object[].class)
+                .setParameter("ultimoId", ultimoId)
+                .setMaxResults(TAMANO_LOTE)
+                .getResultList();
+        // Una sentencia por fila: el valor sale de Evento.calcularFechaFin, igual que al guardar, y
+        // JPQL no tiene aritmetica de fechas comun a SQLite y PostgreSQL para hacerlo en la base
+        Query actualizacion = entityManager.createQuery("update Evento e set e.fechaFin = :fechaFin where e.id = :id");
+        for (Object[] fila : filas) {
+            actualizacion.setParameter("fechaFin", Evento.calcularFechaFin((Date) fila[1], (Long) fila[2]))
+                    .setParameter("id", fila[0])
+                    .executeUpdate();
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,82 @@
+package com.iwellness.admin_events_api.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.iwellness.admin_events_api.entidades.TipoNotificacion;
+
+/**
+ * Hibernate crea la columna notificaciones_pendientes.tipo con un CHECK de los valores del enum y
+ * la actualizacion del esquema no lo cambia, asi que las bases creadas antes de un tipo nuevo lo
+ * rechazan. En SQLite, que no permite modificar un CHECK, se recrea la tabla con sus filas e
+ * indices; en PostgreSQL se reemplaza la restriccion.
+ */
+@Component
+public class MigracionTipoNotificacion implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionTipoNotificacion.class);
+
+    private static final Pattern CHECK_TIPO = Pattern.compile("check \\(tipo in \\([^)]*\\)\\)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${almacenamiento.tipo:sqlite}")
+    private String almacenamiento;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        String check = "check (tipo in (" + Arrays.stream(TipoNotificacion.values())
+                .map(tipo -> "'" + tipo.name() + "'").collect(Collectors.joining(",")) + "))";
+        if ("sqlite".equals(almacenamiento)) {
+            migrarSqlite(check);
+        } else if ("postgres".equals(almacenamiento)) {
+            migrarPostgres(check);
+        }
+    }
+
+    private void migrarSqlite(String check) {
+        List<String> tablas = jdbcTemplate.queryForList(
+                "select sql from sqlite_master where type = 'table' and name = 'notificaciones_pendientes'", String.class);
+        if (tablas.isEmpty() || tablas.get(0).contains(check)) {
+            return;
+        }
+        Matcher matcher = CHECK_TIPO.matcher(tablas.get(0));
+        if (!matcher.find()) {
+            return;
+        }
+        List<String> indices = jdbcTemplate.queryForList("select sql from sqlite_master where type = 'index'"
+                + " and tbl_name = 'notificaciones_pendientes' and sql is not null", String.class);
+        jdbcTemplate.execute("alter table notificaciones_pendientes rename to notificaciones_pendientes_anterior");
+        jdbcTemplate.execute(matcher.replaceFirst(Matcher.quoteReplacement(check)));
+        jdbcTemplate.execute("insert into notificaciones_pendientes select * from notificaciones_pendientes_anterior");
+        jdbcTemplate.execute("drop table notificaciones_pendientes_anterior");
+        indices.forEach(jdbcTemplate::execute);
+        logger.info("Tipos de notificacion actualizados en notificaciones_pendientes");
+    }
+
+    private void migrarPostgres(String check) {
+        List<String> restricciones = jdbcTemplate.queryForList("select pg_get_constraintdef(oid) from pg_constraint"
+                + " where conname = 'notificaciones_pendientes_tipo_check'", String.class);
+        if (restricciones.isEmpty() || restricciones.get(0).contains("'" + TipoNotificacion.RECORDATORIO.name() + "'")) {
+            return;
+        }
+        jdbcTemplate.execute("alter table notificaciones_pendientes drop constraint notificaciones_pendientes_tipo_check");
+        jdbcTemplate.execute("alter table notificaciones_pendientes add constraint notificaciones_pendientes_tipo_check " + check);
+        logger.info("Tipos de notificacion actualizados en notificaciones_pendientes");
+    }
+}
@@ -1,11 +1,28 @@
 package com.iwellness.admin_events_api.controladores;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.iwellness.admin_events_api.exceptions.CampoDesconocidoException;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.ConflictoHorarioException;
+import com.iwellness.admin_events_api.exceptions.CursorInvalidoException;
 import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.LoteDemasiadoGrandeException;
+import com.iwellness.admin_events_api.exceptions.OcurrenciaNoEncontradaException;
+import com.iwellness.admin_events_api.exceptions.RecurrenciaInvalidaException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,71 +31,315 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.iwellness.admin_events_api.dto.BloqueOcupadoDTO;
+import com.iwellness.admin_events_api.dto.EstadisticaMensualDTO;
+import com.iwellness.admin_events_api.dto.ConsultaOcupacionDTO;
 import com.iwellness.admin_events_api.dto.EventoDTO;
+import com.iwellness.admin_events_api.dto.ExcepcionOcurrenciaDTO;
+import com.iwellness.admin_events_api.dto.OcurrenciaDTO;
+import com.iwellness.admin_events_api.dto.PaginaEventosDTO;
+import com.iwellness.admin_events_api.dto.ResumenEventoDTO;
 import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
 import com.iwellness.admin_events_api.exceptions.EventoNotFoundException;
+import com.iwellness.admin_events_api.exceptions.ParametrosIncompatiblesException;
+import com.iwellness.admin_events_api.exceptions.RangoFechasInvalidoException;
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutenticadoException;
+import com.iwellness.admin_events_api.exceptions.SeguridadNoDisponibleException;
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutorizadoPorRolException;
 import com.iwellness.admin_events_api.mapper.EventoMapper;
+import com.iwellness.admin_events_api.repositorios.VersionListaEventos;
 import com.iwellness.admin_events_api.seguridad.ISeguridad;
+import com.iwellness.admin_events_api.servicios.FeedCambiosEventos;
 import com.iwellness.admin_events_api.servicios.IEventoServicio;
+import com.iwellness.admin_events_api.servicios.OrdenEventos;
+import com.iwellness.admin_events_api.servicios.PaginaEventos;
+import com.iwellness.admin_events_api.servicios.ResultadoLote;
 
 @RestController
 @RequestMapping("/evento")
 @CrossOrigin(origins = "*")
 public class EventoControlador {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private IEventoServicio eventoServicio;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FeedCambiosEventos feedCambios;
+
     @Autowired
     @Qualifier("SeguridadEventos")
     private ISeguridad seguridadEventos;
 
+    /**
+     * El ETag sale de un resumen de la tabla (cantidad, suma de versiones y mayor id), asi un
+     * cliente sin cambios recibe 304 sin que se lean ni serialicen los eventos.
+     */
     @GetMapping
-    public List<EventoDTO> getAllEventos() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException{
+    public List<EventoDTO> getAllEventos(WebRequest request) throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException{
         //seguridadEventos.validarRol();
+        if (listaSinCambios(request)) {
+            return null;
+        }
         return eventoServicio.getAllEventos()
             .stream()
             .map(evento -> EventoMapper.eventoToEventoDto(evento))
             .toList();
     }
 
+    /**
+     * Solo lee y devuelve los campos indicados, por ejemplo fields=id,titulo,fecha.
+     */
+    @GetMapping(params = "fields")
+    public List<Map<String, Object>> getCamposEventos(@RequestParam("fields") String fields, WebRequest request) throws CampoDesconocidoException {
+        //seguridadEventos.validarRol();
+        if (listaSinCambios(request)) {
+            return null;
+        }
+        List<String> campos = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(campo -> !campo.isEmpty())
+            .distinct()
+            .toList();
+        return eventoServicio.getCamposEventos(campos)
+            .stream()
+            .map(EventoMapper::camposToJson)
+            .toList();
+    }
+
+    @GetMapping(value = "/resumen")
+    public List<ResumenEventoDTO> getResumenesEventos(WebRequest request) {
+        //seguridadEventos.validarRol();
+        if (listaSinCambios(request)) {
+            return null;
+        }
+        return eventoServicio.getResumenesEventos()
+            .stream()
+            .map(EventoMapper::resumenToDto)
+            .toList();
+    }
+
+    @GetMapping(params = {"desde", "hasta"})
+    public List<EventoDTO> getEventosEnRango(@RequestParam("desde") String desde, @RequestParam("hasta") String hasta,
+            @RequestParam(value = "tipo", required = false) TipoEvento tipo,
+            @RequestParam(value = "activo", required = false) Boolean activo) throws FormatoFechaInvalidoException, RangoFechasInvalidoException {
+        return eventoServicio.getEventosEnRango(EventoMapper.stringToFecha(desde), EventoMapper.stringToFecha(hasta), tipo, activo)
+            .stream()
+            .map(evento -> EventoMapper.eventoToEventoDto(evento))
+            .toList();
+    }
+
+    /**
+     * fields no se aplica a la consulta por rango; sin este mapeo la peticion caeria en el rango y
+     * devolveria los eventos completos sin avisar.
+     */
+    @GetMapping(params = {"desde", "hasta", "fields"})
+    public List<EventoDTO> getCamposEventosEnRango() throws ParametrosIncompatiblesException {
+        throw new ParametrosIncompatiblesException();
+    }
+
+    /**
+     * Ocurrencias que empiezan en el rango, con las series expandidas solo dentro de el. El rango
+     * puede ser de hasta 366 dias.
+     */
+    @GetMapping(value = "/ocurrencias")
+    public List<OcurrenciaDTO> getOcurrencias(@RequestParam("desde") String desde, @RequestParam("hasta") String hasta,
+            @RequestParam(value = "tipo", required = false) TipoEvento tipo,
+            @RequestParam(value = "activo", required = false) Boolean activo) throws FormatoFechaInvalidoException, RangoFechasInvalidoException {
+        //seguridadEventos.validarRol();
+        return eventoServicio.getOcurrencias(EventoMapper.stringToFecha(desde), EventoMapper.stringToFecha(hasta), tipo, activo)
+            .stream()
+            .map(EventoMapper::ocurrenciaToDto)
+            .toList();
+    }
+
+    /**
+     * Cantidad, costo y duracion de los eventos por mes y tipo, activos y cancelados por separado.
+     * desde y hasta son meses yyyy-MM inclusive, hasta 120 meses.
+     */
+    @GetMapping(value = "/estadisticas")
+    public List<EstadisticaMensualDTO> getEstadisticas(@RequestParam("desde") String desde, @RequestParam("hasta") String hasta,
+            @RequestParam(value = "tipo", required = false) TipoEvento tipo) throws FormatoFechaInvalidoException, RangoFechasInvalidoException {
+        //seguridadEventos.validarRol();
+        return EventoMapper.estadisticasToDto(
+            eventoServicio.getEstadisticas(EventoMapper.stringToMes(desde), EventoMapper.stringToMes(hasta), tipo));
+    }
+
+    /**
+     * Vuelve a calcular las estadisticas desde los eventos, por ejemplo despues de cambios hechos
+     * directamente en la base.
+     */
+    @PostMapping(value = "/estadisticas/reconstruir")
+    public void reconstruirEstadisticas() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException, SeguridadNoDisponibleException {
+        seguridadEventos.validarRol();
+        eventoServicio.reconstruirEstadisticas();
+    }
+
+    @GetMapping(value = "/pagina")
+    public PaginaEventosDTO getPaginaEventos(@RequestParam(value = "orden", defaultValue = "ID") OrdenEventos orden,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) throws CursorInvalidoException {
+        return paginaToDto(eventoServicio.getPaginaEventos(orden, cursor, limite));
+    }
+
+    @GetMapping(value = "/asistente/{correo}")
+    public PaginaEventosDTO getEventosPorAsistente(@PathVariable("correo") String correo,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) throws CursorInvalidoException {
+        return paginaToDto(eventoServicio.getEventosPorAsistente(correo, cursor, limite));
+    }
+
+    @GetMapping(value = "/search")
+    public PaginaEventosDTO buscarEventos(@RequestParam("q") String q,
+            @RequestParam(value = "desde", required = false) String desde,
+            @RequestParam(value = "hasta", required = false) String hasta,
+            @RequestParam(value = "tipo", required = false) TipoEvento tipo,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite)
+            throws FormatoFechaInvalidoException, RangoFechasInvalidoException, CursorInvalidoException {
+        //seguridadEventos.validarRol();
+        return paginaToDto(eventoServicio.buscarEventos(q,
+            desde == null ? null : EventoMapper.stringToFecha(desde),
+            hasta == null ? null : EventoMapper.stringToFecha(hasta),
+            tipo, cursor, limite));
+    }
+
+    @GetMapping(value = "/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarEventos() {
+        ObjectWriter writer = objectMapper.writerFor(EventoDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody cuerpo = salida -> {
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                generador.setRootValueSeparator(null);
+                eventoServicio.recorrerEventos(evento -> {
+                    try {
+                        writer.writeValue(generador, EventoMapper.eventoToEventoDto(evento));
+                        generador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(cuerpo);
+    }
+
+    /**
+     * Cambios de eventos por Server-Sent Events. Al reconectarse, el navegador envia Last-Event-ID
+     * y solo recibe lo que se perdio; si ya no se puede retomar recibe REINICIO.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEventos(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoId) {
+        //seguridadEventos.validarRol();
+        return feedCambios.suscribir(ultimoId);
+    }
+
     @GetMapping(value = "/{id}")
-    public EventoDTO getEventoById(@PathVariable("id") Long id) throws EventoNotFoundException, UsuarioNoAutorizadoPorRolException{
+    public EventoDTO getEventoById(@PathVariable("id") Long id, WebRequest request) throws EventoNotFoundException, UsuarioNoAutorizadoPorRolException{
         //seguridadEventos.validarRol();
         Evento evento = eventoServicio.getEventoById(id);
         if (evento == null){
             throw new EventoNotFoundException();
         }
+        if (request.checkNotModified("e-" + evento.getId() + "-" + evento.getVersion())) {
+            return null;
+        }
         return EventoMapper.eventoToEventoDto(evento);
     }
 
+    /**
+     * Con validarConflictos=true una reunion que se cruza con otro evento de sus asistentes responde 409.
+     */
     @PostMapping
-    public EventoDTO creaEvento(@RequestBody EventoDTO eventoDto) throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException {
+    public EventoDTO creaEvento(@RequestBody EventoDTO eventoDto,
+            @RequestParam(value = "validarConflictos", defaultValue = "false") boolean validarConflictos)
+            throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException, RecurrenciaInvalidaException, ConflictoHorarioException {
         //seguridadEventos.validarRol();
         Evento eventoDtoCrear = EventoMapper.eventoDtoToEvento(eventoDto);
-        return EventoMapper.eventoToEventoDto(eventoServicio.crearEvento(eventoDtoCrear));
+        Evento creado = validarConflictos ? eventoServicio.crearEventoSinConflictos(eventoDtoCrear)
+            : eventoServicio.crearEvento(eventoDtoCrear);
+        return EventoMapper.eventoToEventoDto(creado);
     }
 
     @PutMapping
-    public EventoDTO editarEvento(@RequestBody EventoDTO eventoDto) throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException {
+    public EventoDTO editarEvento(@RequestBody EventoDTO eventoDto,
+            @RequestParam(value = "validarConflictos", defaultValue = "false") boolean validarConflictos)
+            throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException, RecurrenciaInvalidaException, ConflictoHorarioException {
         //seguridadEventos.validarRol();
         Evento eventoDtoCrear = EventoMapper.eventoDtoToEvento(eventoDto);
-        return EventoMapper.eventoToEventoDto(eventoServicio.editarEvento(eventoDtoCrear));
+        Evento editado = validarConflictos ? eventoServicio.editarEventoSinConflictos(eventoDtoCrear)
+            : eventoServicio.editarEvento(eventoDtoCrear);
+        return EventoMapper.eventoToEventoDto(editado);
+    }
+
+    /**
+     * Eventos activos de los asistentes del evento recibido que se cruzan con su horario.
+     * Si trae id, ese evento no cuenta como conflicto consigo mismo.
+     */
+    @PostMapping(value = "/conflictos")
+    public List<EventoDTO> getConflictos(@RequestBody EventoDTO eventoDto) throws FormatoFechaInvalidoException, RecurrenciaInvalidaException {
+        //seguridadEventos.validarRol();
+        return eventoServicio.getConflictos(EventoMapper.eventoDtoToEvento(eventoDto))
+            .stream()
+            .map(evento -> EventoMapper.eventoToEventoDto(evento))
+            .toList();
+    }
+
+    /**
+     * Bloques ocupados de un grupo de asistentes en un rango de fechas. Se recibe por POST porque
+     * la lista de correos puede tener cientos de elementos.
+     */
+    @PostMapping(value = "/ocupacion")
+    public List<BloqueOcupadoDTO> getOcupacion(@RequestBody ConsultaOcupacionDTO consulta)
+            throws FormatoFechaInvalidoException, RangoFechasInvalidoException, LoteDemasiadoGrandeException {
+        //seguridadEventos.validarRol();
+        List<String> correos = consulta.getCorreos() == null ? List.of() : consulta.getCorreos();
+        return eventoServicio.getOcupacion(correos, EventoMapper.stringToFecha(consulta.getDesde()),
+                EventoMapper.stringToFecha(consulta.getHasta()))
+            .stream()
+            .map(EventoMapper::intervaloToDto)
+            .toList();
+    }
+
+    @PostMapping(value = "/batch")
+    public List<ResultadoLote> crearEventos(@RequestBody List<EventoDTO> eventosDto) throws UsuarioNoAutorizadoPorRolException, LoteDemasiadoGrandeException {
+        //seguridadEventos.validarRol();
+        return eventoServicio.crearEventos(convertirLote(eventosDto));
+    }
+
+    @PutMapping(value = "/batch")
+    public List<ResultadoLote> editarEventos(@RequestBody List<EventoDTO> eventosDto) throws UsuarioNoAutorizadoPorRolException, LoteDemasiadoGrandeException {
+        //seguridadEventos.validarRol();
+        return eventoServicio.editarEventos(convertirLote(eventosDto));
+    }
+
+    @PostMapping(value = "/batch/cancelar")
+    public List<ResultadoLote> cancelarEventos(@RequestBody List<Long> idsEventos) throws UsuarioNoAutorizadoPorRolException, LoteDemasiadoGrandeException {
+        //seguridadEventos.validarRol();
+        return eventoServicio.cancelarEventos(idsEventos);
     }
 
     @DeleteMapping(value = "/{id}")
-    public void eliminarEvento(@PathVariable("id") Long id) throws UsuarioNoAutorizadoPorRolException{
+    public void eliminarEvento(@PathVariable("id") Long id) throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException, SeguridadNoDisponibleException{
         seguridadEventos.validarRol();
         eventoServicio.eliminarEvento(id);
     }
 
     @PatchMapping(value = "/{id}")
-    public EventoDTO editarParcialEvento(@PathVariable("id") Long id, @RequestBody Map<String, Object> editados) throws EventoNotFoundException, UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException {
+    public EventoDTO editarParcialEvento(@PathVariable("id") Long id, @RequestBody Map<String, Object> editados) throws EventoNotFoundException, UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException, CampoNoEditableException {
         //seguridadEventos.validarRol();
         Evento evento = eventoServicio.editarParcialEvento(id, editados);
         if (evento == null){
@@ -86,5 +347,49 @@ public class EventoControlador {
         }
         return EventoMapper.eventoToEventoDto(evento);
     }
+
+    /**
+     * Cancela (cancelada=true) o modifica la ocurrencia de fechaOriginal de un evento con recurrencia.
+     * Devuelve la serie, cuya version cambia con cada excepcion.
+     */
+    @PutMapping(value = "/{id}/ocurrencias")
+    public EventoDTO editarOcurrencia(@PathVariable("id") Long id, @RequestBody ExcepcionOcurrenciaDTO excepcionDto)
+            throws EventoNotFoundException, FormatoFechaInvalidoException, OcurrenciaNoEncontradaException {
+        //seguridadEventos.validarRol();
+        Evento serie = eventoServicio.editarOcurrencia(id, EventoMapper.excepcionDtoToExcepcion(excepcionDto));
+        if (serie == null) {
+            throw new EventoNotFoundException();
+        }
+        return EventoMapper.eventoToEventoDto(serie);
+    }
+
+    /**
+     * Convierte cada elemento por separado; los que tienen una fecha o una recurrencia invalida quedan en null
+     * para que el servicio los informe como error sin rechazar el lote completo.
+     */
+    private List<Evento> convertirLote(List<EventoDTO> eventosDto) {
+        List<Evento> eventos = new ArrayList<>(eventosDto.size());
+        for (EventoDTO eventoDto : eventosDto) {
+            try {
+                eventos.add(eventoDto == null ? null : EventoMapper.eventoDtoToEvento(eventoDto));
+            } catch (FormatoFechaInvalidoException | RecurrenciaInvalidaException e) {
+                eventos.add(null);
+            }
+        }
+        return eventos;
+    }
+
+    private boolean listaSinCambios(WebRequest request) {
+        VersionListaEventos version = eventoServicio.getVersionListaEventos();
+        return request.checkNotModified("l-" + version.cantidad() + "-" + version.sumaVersiones() + "-" + version.maximoId());
+    }
+
+    private PaginaEventosDTO paginaToDto(PaginaEventos pagina) {
+        List<EventoDTO> eventos = pagina.getEventos()
+            .stream()
+            .map(evento -> EventoMapper.eventoToEventoDto(evento))
+            .toList();
+        return new PaginaEventosDTO(eventos, pagina.getSiguienteCursor());
+    }
     
 }
@@ -0,0 +1,13 @@
+package com.iwellness.admin_events_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BloqueOcupadoDTO {
+    private String inicio;
+    private String fin;
+}
@@ -0,0 +1,16 @@
+package com.iwellness.admin_events_api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaOcupacionDTO {
+    private List<String> correos;
+    private String desde;
+    private String hasta;
+}
@@ -0,0 +1,25 @@
+package com.iwellness.admin_events_api.dto;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totales de un mes (yyyy-MM) y un tipo, separados entre eventos activos y cancelados.
+ * duracion esta en minutos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaMensualDTO {
+    private String mes;
+    private TipoEvento tipo;
+    private long cantidadActivos;
+    private long costoActivos;
+    private long duracionActivos;
+    private long cantidadCancelados;
+    private long costoCancelados;
+    private long duracionCancelados;
+}
@@ -24,4 +24,5 @@ public class EventoDTO {
     private TipoEvento tipo;
     private String color;
     private Boolean activo;
+    private String recurrencia;
 }
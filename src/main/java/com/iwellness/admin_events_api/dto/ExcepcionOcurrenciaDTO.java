@@ -0,0 +1,20 @@
+package com.iwellness.admin_events_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio sobre la ocurrencia de fechaOriginal. Los campos en null toman el valor de la serie.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExcepcionOcurrenciaDTO {
+    private String fechaOriginal;
+    private Boolean cancelada;
+    private String fecha;
+    private Long duracion;
+    private String titulo;
+    private String descripcion;
+}
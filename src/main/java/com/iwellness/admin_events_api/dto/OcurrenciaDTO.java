@@ -0,0 +1,30 @@
+package com.iwellness.admin_events_api.dto;
+
+import java.util.List;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una ocurrencia de un evento en un rango. fechaOriginal es la fecha que le da la regla y solo
+ * viene en los eventos con recurrencia; es la que se usa para cancelarla o modificarla.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcurrenciaDTO {
+    private Long idEvento;
+    private String fechaOriginal;
+    private String fecha;
+    private Long duracion;
+    private String titulo;
+    private String descripcion;
+    private Long costo;
+    private List<String> asistentes;
+    private TipoEvento tipo;
+    private String color;
+    private Boolean activo;
+}
@@ -0,0 +1,15 @@
+package com.iwellness.admin_events_api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaEventosDTO {
+    private List<EventoDTO> eventos;
+    private String siguienteCursor;
+}
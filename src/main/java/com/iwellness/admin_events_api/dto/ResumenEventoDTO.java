@@ -0,0 +1,19 @@
+package com.iwellness.admin_events_api.dto;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenEventoDTO {
+    private Long id;
+    private String titulo;
+    private String fecha;
+    private TipoEvento tipo;
+    private String color;
+    private Boolean activo;
+}
@@ -0,0 +1,218 @@
+package com.iwellness.admin_events_api.email;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.iwellness.admin_events_api.entidades.EstadoNotificacion;
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
+import com.iwellness.admin_events_api.repositorios.NotificacionPendienteRepositorio;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Vacia la tabla notificaciones_pendientes por lotes. Cada lote se reserva con un token
+ * para que varias instancias puedan despachar a la vez, se envia con concurrencia acotada
+ * y los fallos se reintentan con espera exponencial hasta agotar los intentos.
+ *
+ * Las notificaciones de un lote se agrupan en un mensaje por destinatario, junto con las pendientes
+ * de los mismos eventos, y los mensajes se reparten en un tramo por hilo que se envia por una sola
+ * conexion SMTP.
+ */
+@Component
+public class DespachadorNotificaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorNotificaciones.class);
+
+    private static final Set<EstadoNotificacion> ESTADOS_LISTOS = Set.of(EstadoNotificacion.PENDIENTE, EstadoNotificacion.EN_PROCESO);
+
+    @Autowired
+    private NotificacionPendienteRepositorio notificacionRepositorio;
+
+    @Autowired
+    private ServicioEmail servicioEmail;
+
+    @Value("${notificaciones.despacho.lote:50}")
+    private int tamanoLote;
+
+    @Value("${notificaciones.despacho.concurrencia:4}")
+    private int concurrencia;
+
+    @Value("${notificaciones.despacho.intentos-maximos:5}")
+    private int intentosMaximos;
+
+    @Value("${notificaciones.despacho.espera-inicial-ms:5000}")
+    private long esperaInicialMs;
+
+    @Value("${notificaciones.despacho.espera-maxima-ms:600000}")
+    private long esperaMaximaMs;
+
+    @Value("${notificaciones.despacho.reserva-ms:120000}")
+    private long reservaMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    private ExecutorService ejecutor;
+
+    @PostConstruct
+    public void iniciar() {
+        if (hilosVirtuales) {
+            // Cada lote lanza a lo sumo un tramo por hilo de concurrencia, asi que el limite se mantiene
+            ejecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("despacho-notificaciones-", 1).factory());
+            return;
+        }
+        AtomicInteger contador = new AtomicInteger();
+        ejecutor = Executors.newFixedThreadPool(concurrencia, tarea -> {
+            Thread hilo = new Thread(tarea, "despacho-notificaciones-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${notificaciones.despacho.intervalo-ms:2000}")
+    public void despachar() {
+        List<NotificacionPendiente> lote;
+        do {
+            lote = reservarLote();
+            if (!lote.isEmpty()) {
+                enviarLote(lote);
+            }
+        } while (lote.size() >= tamanoLote);
+    }
+
+    private List<NotificacionPendiente> reservarLote() {
+        Date ahora = new Date();
+        List<Long> ids = notificacionRepositorio.findIdsListos(ESTADOS_LISTOS, ahora, Limit.of(tamanoLote));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String reserva = UUID.randomUUID().toString();
+        Date finReserva = new Date(ahora.getTime() + reservaMs);
+        if (notificacionRepositorio.reservar(ids, ESTADOS_LISTOS, reserva, finReserva, ahora) == 0) {
+            return List.of();
+        }
+        List<NotificacionPendiente> reservadas = notificacionRepositorio.findByReservaOrderByIdAsc(reserva);
+        List<Long> idsEventos = reservadas.stream().map(NotificacionPendiente::getIdEvento).distinct().toList();
+        if (notificacionRepositorio.reservarDeEventos(idsEventos, reserva, finReserva) == 0) {
+            return reservadas;
+        }
+        return notificacionRepositorio.findByReservaOrderByIdAsc(reserva);
+    }
+
+    private void enviarLote(List<NotificacionPendiente> lote) {
+        Map<String, List<NotificacionPendiente>> porDestinatario = new LinkedHashMap<>();
+        for (NotificacionPendiente notificacion : lote) {
+            porDestinatario.computeIfAbsent(notificacion.getDestinatario(), destinatario -> new ArrayList<>()).add(notificacion);
+        }
+        List<List<NotificacionPendiente>> grupos = new ArrayList<>(porDestinatario.values());
+        List<SimpleMailMessage> mensajes = new ArrayList<>(grupos.size());
+        porDestinatario.forEach((destinatario, notificaciones) -> mensajes.add(servicioEmail.componer(destinatario, notificaciones)));
+
+        int tamanoTramo = (mensajes.size() + concurrencia - 1) / concurrencia;
+        List<Callable<Map<Integer, Exception>>> tareas = new ArrayList<>();
+        for (int desde = 0; desde < mensajes.size(); desde += tamanoTramo) {
+            List<SimpleMailMessage> tramo = mensajes.subList(desde, Math.min(desde + tamanoTramo, mensajes.size()));
+            tareas.add(() -> servicioEmail.enviar(tramo));
+        }
+        List<Future<Map<Integer, Exception>>> resultados;
+        try {
+            resultados = ejecutor.invokeAll(tareas);
+        } catch (InterruptedException e) {
+            // Las reservas vencen y el lote se vuelve a enviar
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        List<Long> enviadas = new ArrayList<>(lote.size());
+        for (int t = 0; t < resultados.size(); t++) {
+            int desde = t * tamanoTramo;
+            int cantidad = Math.min(tamanoTramo, grupos.size() - desde);
+            Map<Integer, Exception> fallidos = fallidos(resultados.get(t), cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                List<NotificacionPendiente> grupo = grupos.get(desde + i);
+                Exception error = fallidos.get(i);
+                if (error == null) {
+                    grupo.forEach(notificacion -> enviadas.add(notificacion.getId()));
+                } else {
+                    grupo.forEach(notificacion -> registrarFallo(notificacion, error));
+                }
+            }
+        }
+        if (!enviadas.isEmpty()) {
+            notificacionRepositorio.deleteAllByIdInBatch(enviadas);
+        }
+    }
+
+    /**
+     * Errores de un tramo por posicion; si el tramo no termino, todos sus mensajes cuentan como fallidos.
+     */
+    private Map<Integer, Exception> fallidos(Future<Map<Integer, Exception>> resultado, int cantidad) {
+        Exception error;
+        try {
+            return resultado.get();
+        } catch (ExecutionException e) {
+            error = e.getCause() instanceof Exception causa ? causa : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = e;
+        }
+        Map<Integer, Exception> fallidos = new HashMap<>();
+        for (int i = 0; i < cantidad; i++) {
+            fallidos.put(i, error);
+        }
+        return fallidos;
+    }
+
+    private void registrarFallo(NotificacionPendiente notificacion, Exception error) {
+        int intentos = notificacion.getIntentos() == null ? 1 : notificacion.getIntentos() + 1;
+        notificacion.setIntentos(intentos);
+        notificacion.setReserva(null);
+        notificacion.setUltimoError(error.getMessage() == null ? error.getClass().getName() : StringUtils.truncate(error.getMessage(), 200));
+        if (intentos >= intentosMaximos) {
+            notificacion.setEstado(EstadoNotificacion.FALLIDA);
+            logger.error("Notificacion {} a {} descartada tras {} intentos", notificacion.getId(),
+                    notificacion.getDestinatario(), intentos, error);
+        } else {
+            notificacion.setEstado(EstadoNotificacion.PENDIENTE);
+            notificacion.setProximoIntento(new Date(System.currentTimeMillis() + calcularEspera(intentos)));
+            logger.warn("Fallo el envio de la notificacion {} (intento {}): {}", notificacion.getId(), intentos, error.getMessage());
+        }
+        notificacionRepositorio.save(notificacion);
+    }
+
+    long calcularEspera(int intentos) {
+        long espera = esperaInicialMs << Math.min(intentos - 1, 20);
+        espera = Math.min(espera, esperaMaximaMs);
+        // Se agrega hasta un 20% de variacion para que los reintentos no lleguen todos juntos al servidor SMTP
+        return espera + ThreadLocalRandom.current().nextLong(espera / 5 + 1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.iwellness.admin_events_api.email;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.iwellness.admin_events_api.exceptions.RangoFechasInvalidoException;
+import com.iwellness.admin_events_api.servicios.IEventoServicio;
+import com.iwellness.admin_events_api.servicios.ProgramadorRecordatorios;
+
+/**
+ * Mantiene cargada la cola de recordatorios y encola, por lotes, los que ya vencieron. Cada
+ * recordatorio se registra en notificaciones_pendientes y lo envia {@link DespachadorNotificaciones}.
+ */
+@Component
+public class DespachadorRecordatorios {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorRecordatorios.class);
+
+    @Autowired
+    private IEventoServicio eventoServicio;
+
+    @Autowired
+    private ProgramadorRecordatorios programador;
+
+    @Value("${recordatorios.lote:200}")
+    private int tamanoLote;
+
+    @Scheduled(fixedDelayString = "${recordatorios.intervalo-ms:1000}")
+    public void despachar() {
+        long ahora = System.currentTimeMillis();
+        try {
+            ProgramadorRecordatorios.Ventana ventana = programador.ventanaPorCargar(ahora);
+            if (ventana != null) {
+                programador.cargar(eventoServicio.getOcurrencias(ventana.desde(), ventana.hasta(), null, true), ventana);
+            }
+            List<ProgramadorRecordatorios.Recordatorio> vencidos;
+            while (!(vencidos = programador.extraerVencidos(ahora, tamanoLote)).isEmpty()) {
+                eventoServicio.enviarRecordatorios(vencidos);
+            }
+        } catch (RangoFechasInvalidoException | RuntimeException e) {
+            // Lo que ya se encolo quedo marcado en el evento: se vuelve a cargar todo desde la base
+            logger.error("Error al procesar recordatorios, se recarga la cola", e);
+            programador.reiniciar();
+        }
+    }
+}
@@ -1,35 +1,118 @@
 package com.iwellness.admin_events_api.email;
 
-import org.slf4j.helpers.MessageFormatter;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
+import com.iwellness.admin_events_api.entidades.TipoNotificacion;
+
 @Service
 public class ServicioEmail {
 
+    private static final String REMITENTE = "notificaciones.exiua@gmail.com";
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
+            .withZone(ZoneId.systemDefault());
+
     @Autowired
     private JavaMailSender mailSender;
 
-    public void enviarEmailCancelacion(String destinatario, String evento) {
+    /**
+     * Arma un solo mensaje con las notificaciones de un destinatario. Cada evento aparece una vez:
+     * cancelado si alguna de sus notificaciones es de cancelacion, si no con su recordatorio y si
+     * no modificado, con los datos de la notificacion mas reciente de ese tipo.
+     */
+    public SimpleMailMessage componer(String destinatario, List<NotificacionPendiente> notificaciones) {
+        Map<Long, NotificacionPendiente> porEvento = new LinkedHashMap<>();
+        for (NotificacionPendiente notificacion : notificaciones) {
+            porEvento.merge(notificacion.getIdEvento(), notificacion, ServicioEmail::combinar);
+        }
         SimpleMailMessage message = new SimpleMailMessage();
-        String mensaje = "Lamentamos informarle que el evento "+evento+" fue cancelado.";
-        message.setFrom("notificaciones.exiua@gmail.com");
+        message.setFrom(REMITENTE);
         message.setTo(destinatario);
-        message.setSubject("Evento Cancelado");
-        message.setText(mensaje);
-        mailSender.send(message);
+        if (porEvento.size() == 1) {
+            NotificacionPendiente notificacion = porEvento.values().iterator().next();
+            String evento = notificacion.getTituloEvento();
+            switch (notificacion.getTipo()) {
+                case CANCELACION -> {
+                    message.setSubject("Evento Cancelado");
+                    message.setText("Lamentamos informarle que el evento "+evento+" fue cancelado.");
+                }
+                case RECORDATORIO -> {
+                    message.setSubject("Recordatorio de Evento");
+                    message.setText("Estimado usuario le recordamos que el evento "+evento+" comienza el "
+                            +fecha(notificacion)+".\nGracias.");
+                }
+                case MODIFICACION -> {
+                    message.setSubject("Evento Modificado");
+                    message.setText("Estimado usuario se informa que el evento "+evento+" fue modificado.\nGracias.");
+                }
+            }
+            return message;
+        }
+        StringBuilder mensaje = new StringBuilder("Estimado usuario se informan los siguientes cambios en sus eventos:\n");
+        for (NotificacionPendiente notificacion : porEvento.values()) {
+            mensaje.append("- ").append(notificacion.getTituloEvento()).append(switch (notificacion.getTipo()) {
+                case CANCELACION -> ": cancelado\n";
+                case RECORDATORIO -> ": comienza el " + fecha(notificacion) + "\n";
+                case MODIFICACION -> ": modificado\n";
+            });
+        }
+        message.setSubject("Cambios en sus Eventos");
+        message.setText(mensaje.append("Gracias.").toString());
+        return message;
     }
 
-    public void enviarEmailModificacion(String destinatario, String evento) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        String mensaje = "Estimado usuario se informa que el evento "+evento+" fue modificado.\nGracias.";
-        message.setFrom("notificaciones.exiua@gmail.com");
-        message.setTo(destinatario);
-        message.setSubject("Evento Modificado");
-        message.setText(mensaje);
-        mailSender.send(message);
+    /**
+     * Envia los mensajes por una sola conexion SMTP. Devuelve el error de cada mensaje que no se
+     * pudo enviar, por su posicion en la lista.
+     */
+    public Map<Integer, Exception> enviar(List<SimpleMailMessage> mensajes) {
+        try {
+            mailSender.send(mensajes.toArray(SimpleMailMessage[]::new));
+            return Map.of();
+        } catch (MailSendException e) {
+            Map<Integer, Exception> fallidos = new HashMap<>();
+            for (int i = 0; i < mensajes.size(); i++) {
+                Exception error = e.getFailedMessages().isEmpty() ? e : e.getFailedMessages().get(mensajes.get(i));
+                if (error != null) {
+                    fallidos.put(i, error);
+                }
+            }
+            return fallidos;
+        } catch (MailException e) {
+            Map<Integer, Exception> fallidos = new HashMap<>();
+            for (int i = 0; i < mensajes.size(); i++) {
+                fallidos.put(i, e);
+            }
+            return fallidos;
+        }
+    }
+
+    private static NotificacionPendiente combinar(NotificacionPendiente anterior, NotificacionPendiente nueva) {
+        return prioridad(anterior.getTipo()) > prioridad(nueva.getTipo()) ? anterior : nueva;
+    }
+
+    private static int prioridad(TipoNotificacion tipo) {
+        return switch (tipo) {
+            case CANCELACION -> 2;
+            case RECORDATORIO -> 1;
+            case MODIFICACION -> 0;
+        };
+    }
+
+    private static String fecha(NotificacionPendiente notificacion) {
+        return notificacion.getFechaEvento() == null ? "" : FORMATO_FECHA.format(notificacion.getFechaEvento().toInstant());
     }
-    
 }
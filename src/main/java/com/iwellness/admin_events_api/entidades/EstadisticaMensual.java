@@ -0,0 +1,42 @@
+package com.iwellness.admin_events_api.entidades;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totales de los eventos de un mes, un tipo y un estado (activo o cancelado). Se mantienen al
+ * escribir eventos, asi una consulta lee una fila por mes, tipo y estado sin recorrer los eventos.
+ *
+ * El id se deriva de la clave (ver {@link #idDe}); la clave primaria evita filas repetidas
+ * tambien en SQLite, donde el dialecto no crea indices unicos.
+ */
+@Entity
+@Table(name = "estadisticas_eventos", indexes = @Index(name = "idx_estadistica_mes", columnList = "mes, tipo"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticaMensual {
+
+    @Id
+    private Long id;
+    /**
+     * Año y mes como yyyyMM, en la zona del servidor.
+     */
+    private Integer mes;
+    private TipoEvento tipo;
+    private Boolean activo;
+    private Long cantidad;
+    private Long costo;
+    private Long duracion;
+
+    public static long idDe(int mes, TipoEvento tipo, boolean activo) {
+        return mes * 100L + (tipo == null ? 0 : tipo.ordinal() + 1) * 2L + (activo ? 1 : 0);
+    }
+}
@@ -0,0 +1,7 @@
+package com.iwellness.admin_events_api.entidades;
+
+public enum EstadoNotificacion {
+
+    PENDIENTE, EN_PROCESO, FALLIDA;
+
+}
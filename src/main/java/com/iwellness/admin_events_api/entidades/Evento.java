@@ -3,19 +3,34 @@ package com.iwellness.admin_events_api.entidades;
 import java.util.Date;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.iwellness.admin_events_api.config.IdSecuencia;
+
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = {
+        @Index(name = "idx_evento_fecha", columnList = "fecha, id_usuarios"),
+        @Index(name = "idx_evento_fecha_fin", columnList = "fecha_fin, fecha"),
+        @Index(name = "idx_evento_fin_serie", columnList = "fin_serie, fecha")})
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,7 +38,7 @@ import lombok.NoArgsConstructor;
 public class Evento {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdSecuencia(nombre = "evento_seq")
     @Column(name = "id_usuarios")
     private Long id;
     private String titulo;
@@ -31,8 +46,64 @@ public class Evento {
     private Date fecha;
     private Long duracion;
     private Long costo;
+    @ElementCollection
+    @CollectionTable(name = "evento_asistentes", joinColumns = @JoinColumn(name = "evento_id"),
+            indexes = @Index(name = "idx_asistente_correo", columnList = "correo, evento_id"))
+    @Column(name = "correo")
+    @BatchSize(size = 100)
     private List<String> asistentes;
     private TipoEvento tipo;
     private String color;
     private Boolean activo = true;
+    /**
+     * Se incrementa en cada escritura, incluidos los cambios de asistentes, y da el ETag del evento.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    /**
+     * Fin del evento, fecha mas la duracion en minutos. Se calcula al guardar para que la
+     * busqueda de solapamientos compare columnas indexadas en lugar de calcularlo por fila.
+     */
+    @Column(name = "fecha_fin")
+    private Date fechaFin;
+    /**
+     * Regla de repeticion (subconjunto de RRULE, ver {@link ReglaRecurrencia}); null si el evento
+     * ocurre una sola vez. Las ocurrencias no se guardan, se calculan al consultar.
+     */
+    private String recurrencia;
+    /**
+     * Fin de la ultima ocurrencia de una serie, o {@link #FIN_SERIE_ABIERTA} si no termina; null en
+     * los eventos sin recurrencia. Las series de un rango salen de un recorrido del indice
+     * fin_serie, que solo contiene las series y no el resto de los eventos.
+     */
+    @Column(name = "fin_serie")
+    private Date finSerie;
+    /**
+     * Fecha de la ultima ocurrencia cuyo recordatorio ya se encolo; las posteriores siguen
+     * pendientes. Se marca sin cambiar la version y vuelve a null si se mueve un evento sin recurrencia.
+     * Con {@link DynamicUpdate} una edicion solo escribe las columnas que cambio, asi no devuelve a
+     * null una marca puesta despues de cargar el evento.
+     */
+    @Column(name = "recordatorio_enviado_para")
+    private Date recordatorioEnviadoPara;
+
+    public static final Date FIN_SERIE_ABIERTA = new Date(253402214400000L);
+
+    @PrePersist
+    @PreUpdate
+    void calcularFechaFin() {
+        fechaFin = calcularFechaFin(fecha, duracion);
+        if (recurrencia == null || fecha == null) {
+            finSerie = null;
+        } else {
+            Date ultima = ReglaRecurrencia.parsear(recurrencia).ultimaOcurrencia(fecha);
+            finSerie = ultima == null ? FIN_SERIE_ABIERTA : calcularFechaFin(ultima, duracion);
+        }
+    }
+
+    public static Date calcularFechaFin(Date fecha, Long duracion) {
+        return fecha == null ? null : new Date(fecha.getTime() + (duracion == null ? 0 : duracion) * 60_000L);
+    }
 }
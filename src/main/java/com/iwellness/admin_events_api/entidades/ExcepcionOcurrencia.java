@@ -0,0 +1,50 @@
+package com.iwellness.admin_events_api.entidades;
+
+import java.util.Date;
+
+import com.iwellness.admin_events_api.config.IdSecuencia;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio sobre una sola ocurrencia de un evento con recurrencia, identificada por su fecha
+ * original. Solo se guardan las ocurrencias canceladas o modificadas; el resto sale de la regla.
+ * fecha y fechaFin son siempre los valores efectivos, para buscar las ocurrencias movidas por rango.
+ *
+ * Hay a lo sumo una por evento y fecha original: cada escritura incrementa la version del evento,
+ * asi dos cambios simultaneos sobre la misma serie no se confirman ambos (el dialecto de SQLite
+ * no crea indices unicos).
+ */
+@Entity
+@Table(name = "evento_excepciones", indexes = {
+        @Index(name = "idx_excepcion_evento_fecha", columnList = "evento_id, fecha_original"),
+        @Index(name = "idx_excepcion_fecha_fin", columnList = "fecha_fin, fecha")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExcepcionOcurrencia {
+
+    @Id
+    @IdSecuencia(nombre = "excepcion_seq")
+    private Long id;
+    @Column(name = "evento_id", nullable = false)
+    private Long eventoId;
+    @Column(name = "fecha_original", nullable = false)
+    private Date fechaOriginal;
+    private Boolean cancelada;
+    private String titulo;
+    private String descripcion;
+    private Date fecha;
+    private Long duracion;
+    @Column(name = "fecha_fin")
+    private Date fechaFin;
+}
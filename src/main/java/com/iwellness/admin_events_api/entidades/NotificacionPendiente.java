@@ -0,0 +1,50 @@
+package com.iwellness.admin_events_api.entidades;
+
+import java.util.Date;
+
+import com.iwellness.admin_events_api.config.IdSecuencia;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notificacion por email registrada en la misma transaccion que el cambio del evento
+ * y enviada despues por {@link com.iwellness.admin_events_api.email.DespachadorNotificaciones}.
+ */
+@Entity
+@Table(name = "notificaciones_pendientes", indexes = {
+        @Index(name = "idx_notificacion_estado_proximo", columnList = "estado, proximo_intento"),
+        @Index(name = "idx_notificacion_reserva", columnList = "reserva"),
+        @Index(name = "idx_notificacion_evento", columnList = "id_evento, estado")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificacionPendiente {
+
+    @Id
+    @IdSecuencia(nombre = "notificacion_seq")
+    private Long id;
+    private Long idEvento;
+    private String destinatario;
+    private String tituloEvento;
+    @Enumerated(EnumType.STRING)
+    private TipoNotificacion tipo;
+    @Enumerated(EnumType.STRING)
+    private EstadoNotificacion estado;
+    private Integer intentos;
+    private Date proximoIntento;
+    private String reserva;
+    private String ultimoError;
+    private Date creada;
+    private Date fechaEvento;
+}
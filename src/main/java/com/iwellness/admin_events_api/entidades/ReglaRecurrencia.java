@@ -0,0 +1,256 @@
+package com.iwellness.admin_events_api.entidades;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Subconjunto de RRULE (RFC 5545): FREQ=DAILY, WEEKLY o MONTHLY, INTERVAL, COUNT o UNTIL y, solo
+ * en WEEKLY, BYDAY. Las ocurrencias se calculan en la zona del sistema, asi conservan la hora local
+ * en los cambios de horario. En MONTHLY, si el mes no tiene el dia de inicio se usa el ultimo del mes.
+ *
+ * Las ocurrencias se agrupan en periodos (un dia, una semana o un mes por INTERVAL); cada periodo
+ * tiene una cantidad fija de ocurrencias, por lo que se puede saltar directo al periodo de una
+ * fecha sin recorrer los anteriores, tambien con COUNT.
+ */
+public final class ReglaRecurrencia {
+
+    public enum Frecuencia { DAILY, WEEKLY, MONTHLY }
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private static final DateTimeFormatter FORMATO_UNTIL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private static final int INTERVALO_MAXIMO = 1000;
+
+    private static final int CANTIDAD_MAXIMA = 10000;
+
+    private static final Map<String, DayOfWeek> DIAS = Map.of("MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY,
+            "WE", DayOfWeek.WEDNESDAY, "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY,
+            "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    private final Frecuencia frecuencia;
+    private final int intervalo;
+    private final Integer cantidad;
+    private final Instant hasta;
+    private final Set<DayOfWeek> dias;
+
+    private ReglaRecurrencia(Frecuencia frecuencia, int intervalo, Integer cantidad, Instant hasta, Set<DayOfWeek> dias) {
+        this.frecuencia = frecuencia;
+        this.intervalo = intervalo;
+        this.cantidad = cantidad;
+        this.hasta = hasta;
+        this.dias = dias;
+    }
+
+    /**
+     * Interpreta la regla, con o sin el prefijo RRULE:. Lanza IllegalArgumentException si no es valida.
+     */
+    public static ReglaRecurrencia parsear(String regla) {
+        String texto = regla.startsWith("RRULE:") ? regla.substring(6) : regla;
+        Frecuencia frecuencia = null;
+        int intervalo = 1;
+        Integer cantidad = null;
+        Instant hasta = null;
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (String parte : texto.split(";")) {
+            int igual = parte.indexOf('=');
+            if (igual < 0) {
+                throw new IllegalArgumentException(parte);
+            }
+            String clave = parte.substring(0, igual);
+            String valor = parte.substring(igual + 1);
+            switch (clave) {
+                case "FREQ" -> frecuencia = Frecuencia.valueOf(valor);
+                case "INTERVAL" -> intervalo = entero(valor, INTERVALO_MAXIMO);
+                case "COUNT" -> cantidad = entero(valor, CANTIDAD_MAXIMA);
+                case "UNTIL" -> hasta = parsearHasta(valor);
+                case "BYDAY" -> {
+                    for (String dia : valor.split(",")) {
+                        DayOfWeek diaSemana = DIAS.get(dia);
+                        if (diaSemana == null) {
+                            throw new IllegalArgumentException(dia);
+                        }
+                        dias.add(diaSemana);
+                    }
+                }
+                default -> throw new IllegalArgumentException(clave);
+            }
+        }
+        if (frecuencia == null || (cantidad != null && hasta != null) || (!dias.isEmpty() && frecuencia != Frecuencia.WEEKLY)) {
+            throw new IllegalArgumentException(regla);
+        }
+        return new ReglaRecurrencia(frecuencia, intervalo, cantidad, hasta, dias);
+    }
+
+    /**
+     * Valida la regla para un evento que empieza en inicio y la devuelve sin el prefijo RRULE:.
+     */
+    public static String normalizar(String regla, Date inicio) {
+        if (inicio == null) {
+            throw new IllegalArgumentException("Una recurrencia necesita fecha de inicio");
+        }
+        parsear(regla).validarInicio(inicio);
+        return regla.startsWith("RRULE:") ? regla.substring(6) : regla;
+    }
+
+    /**
+     * Verifica que la regla se pueda usar con la fecha de inicio indicada: con BYDAY, el dia de
+     * inicio debe estar entre los dias, porque el inicio es siempre la primera ocurrencia.
+     */
+    public void validarInicio(Date inicio) {
+        if (!dias.isEmpty() && !dias.contains(local(inicio).getDayOfWeek())) {
+            throw new IllegalArgumentException("El inicio no coincide con BYDAY");
+        }
+    }
+
+    /**
+     * Inicios de las ocurrencias en [desde, hasta), en orden.
+     */
+    public List<Date> ocurrencias(Date inicio, Date desde, Date hastaVentana) {
+        LocalDateTime primera = local(inicio);
+        LocalDateTime limite = local(hastaVentana);
+        long periodo = Math.max(0, periodoDe(primera, local(desde)) - 1);
+        long indice = ocurrenciasAntesDe(primera, periodo);
+        List<Date> ocurrencias = new ArrayList<>();
+        while (true) {
+            List<LocalDateTime> delPeriodo = ocurrenciasDelPeriodo(primera, periodo);
+            if (delPeriodo.isEmpty() && inicioPeriodo(primera, periodo).isAfter(limite)) {
+                return ocurrencias;
+            }
+            for (LocalDateTime ocurrencia : delPeriodo) {
+                Date fecha = fecha(ocurrencia);
+                if ((cantidad != null && indice >= cantidad) || (hasta != null && fecha.toInstant().isAfter(hasta))
+                        || !fecha.before(hastaVentana)) {
+                    return ocurrencias;
+                }
+                if (!fecha.before(desde)) {
+                    ocurrencias.add(fecha);
+                }
+                indice++;
+            }
+            periodo++;
+        }
+    }
+
+    public boolean esOcurrencia(Date inicio, Date fecha) {
+        return ocurrencias(inicio, fecha, new Date(fecha.getTime() + 1)).contains(fecha);
+    }
+
+    /**
+     * Inicio de la ultima ocurrencia, o null si la serie no termina.
+     */
+    public Date ultimaOcurrencia(Date inicio) {
+        LocalDateTime primera = local(inicio);
+        if (cantidad != null) {
+            int primerPeriodo = ocurrenciasDelPeriodo(primera, 0).size();
+            if (cantidad <= primerPeriodo) {
+                return fecha(ocurrenciasDelPeriodo(primera, 0).get(cantidad - 1));
+            }
+            int porPeriodo = ocurrenciasPorPeriodo();
+            long resto = cantidad - primerPeriodo - 1;
+            return fecha(ocurrenciasDelPeriodo(primera, 1 + resto / porPeriodo).get((int) (resto % porPeriodo)));
+        }
+        if (hasta != null) {
+            Date limite = new Date(hasta.toEpochMilli() + 1);
+            if (!inicio.before(limite)) {
+                return inicio;
+            }
+            // El periodo de UNTIL y el anterior alcanzan para encontrar la ultima ocurrencia
+            long periodo = Math.max(0, periodoDe(primera, local(limite)) - 1);
+            List<Date> ultimas = ocurrencias(inicio, fecha(inicioPeriodo(primera, periodo)), limite);
+            return ultimas.isEmpty() ? inicio : ultimas.get(ultimas.size() - 1);
+        }
+        return null;
+    }
+
+    private int ocurrenciasPorPeriodo() {
+        return dias.isEmpty() ? 1 : dias.size();
+    }
+
+    private long ocurrenciasAntesDe(LocalDateTime primera, long periodo) {
+        return periodo == 0 ? 0 : ocurrenciasDelPeriodo(primera, 0).size() + (periodo - 1) * ocurrenciasPorPeriodo();
+    }
+
+    private long periodoDe(LocalDateTime primera, LocalDateTime fecha) {
+        long unidades = switch (frecuencia) {
+            case DAILY -> ChronoUnit.DAYS.between(primera.toLocalDate(), fecha.toLocalDate());
+            case WEEKLY -> ChronoUnit.WEEKS.between(lunes(primera.toLocalDate()), lunes(fecha.toLocalDate()));
+            case MONTHLY -> ChronoUnit.MONTHS.between(primera.toLocalDate().withDayOfMonth(1), fecha.toLocalDate().withDayOfMonth(1));
+        };
+        return unidades / intervalo;
+    }
+
+    private LocalDateTime inicioPeriodo(LocalDateTime primera, long periodo) {
+        return switch (frecuencia) {
+            case DAILY -> primera.plusDays(periodo * intervalo);
+            case WEEKLY -> lunes(primera.toLocalDate()).plusWeeks(periodo * intervalo).atTime(primera.toLocalTime());
+            case MONTHLY -> primera.plusMonths(periodo * intervalo);
+        };
+    }
+
+    private List<LocalDateTime> ocurrenciasDelPeriodo(LocalDateTime primera, long periodo) {
+        if (frecuencia != Frecuencia.WEEKLY) {
+            return List.of(inicioPeriodo(primera, periodo));
+        }
+        if (dias.isEmpty()) {
+            // Sin BYDAY la serie se repite el mismo dia de la semana que el inicio
+            return List.of(primera.plusWeeks(periodo * intervalo));
+        }
+        LocalDateTime lunes = inicioPeriodo(primera, periodo);
+        List<LocalDateTime> ocurrencias = new ArrayList<>(dias.size());
+        for (DayOfWeek dia : dias) {
+            LocalDateTime ocurrencia = lunes.with(TemporalAdjusters.nextOrSame(dia));
+            if (periodo > 0 || !ocurrencia.isBefore(primera)) {
+                ocurrencias.add(ocurrencia);
+            }
+        }
+        return ocurrencias;
+    }
+
+    private static LocalDate lunes(LocalDate fecha) {
+        return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static LocalDateTime local(Date fecha) {
+        return LocalDateTime.ofInstant(fecha.toInstant(), ZONA);
+    }
+
+    private static Date fecha(LocalDateTime local) {
+        return Date.from(local.atZone(ZONA).toInstant());
+    }
+
+    private static int entero(String valor, int maximo) {
+        int numero = Integer.parseInt(valor);
+        if (numero < 1 || numero > maximo) {
+            throw new IllegalArgumentException(valor);
+        }
+        return numero;
+    }
+
+    private static Instant parsearHasta(String valor) {
+        try {
+            if (valor.length() == 8) {
+                // Solo fecha: incluye todo ese dia
+                return LocalDate.parse(valor, DateTimeFormatter.BASIC_ISO_DATE).plusDays(1).atStartOfDay(ZONA).toInstant().minusMillis(1);
+            }
+            return Instant.from(FORMATO_UNTIL.parse(valor));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(valor, e);
+        }
+    }
+}
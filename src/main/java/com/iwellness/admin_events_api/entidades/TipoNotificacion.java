@@ -0,0 +1,7 @@
+package com.iwellness.admin_events_api.entidades;
+
+public enum TipoNotificacion {
+
+    CANCELACION, MODIFICACION, RECORDATORIO;
+
+}
@@ -0,0 +1,9 @@
+package com.iwellness.admin_events_api.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Campo no editable o con valor invalido")
+public class CampoNoEditableException extends Exception{
+    
+}
@@ -0,0 +1,9 @@
+package com.iwellness.admin_events_api.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.CONFLICT, reason = "La reunion se solapa con otro evento de sus asistentes")
+public class ConflictoHorarioException extends Exception{
+    
+}
@@ -0,0 +1,87 @@
+package com.iwellness.admin_events_api.mapper;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+
+/**
+ * Convierte fechas al formato de la API, yyyy-MM-dd'T'HH:mm:ss.SSS'Z', y desde el.
+ * No guarda estado, por lo que se puede usar desde cualquier hilo. Igual que el
+ * SimpleDateFormat al que reemplaza, interpreta la hora en la zona del sistema.
+ */
+public final class CodificadorFechas {
+
+    private static final int LARGO = 24;
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    // Solo para años fuera de 0000-9999, que no entran en el formato de ancho fijo
+    private static final DateTimeFormatter FORMATO_GENERAL = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZONA);
+
+    private CodificadorFechas() {
+    }
+
+    public static String formatear(Date fecha) {
+        Instant instante = Instant.ofEpochMilli(fecha.getTime());
+        LocalDateTime local = LocalDateTime.ofInstant(instante, ZONA);
+        if (local.getYear() < 0 || local.getYear() > 9999) {
+            return FORMATO_GENERAL.format(instante);
+        }
+        char[] texto = new char[LARGO];
+        escribir(texto, 0, local.getYear(), 4);
+        texto[4] = '-';
+        escribir(texto, 5, local.getMonthValue(), 2);
+        texto[7] = '-';
+        escribir(texto, 8, local.getDayOfMonth(), 2);
+        texto[10] = 'T';
+        escribir(texto, 11, local.getHour(), 2);
+        texto[13] = ':';
+        escribir(texto, 14, local.getMinute(), 2);
+        texto[16] = ':';
+        escribir(texto, 17, local.getSecond(), 2);
+        texto[19] = '.';
+        escribir(texto, 20, local.getNano() / 1_000_000, 3);
+        texto[23] = 'Z';
+        return new String(texto);
+    }
+
+    public static Date parsear(String texto) throws FormatoFechaInvalidoException {
+        if (texto == null || texto.length() != LARGO || texto.charAt(4) != '-' || texto.charAt(7) != '-'
+                || texto.charAt(10) != 'T' || texto.charAt(13) != ':' || texto.charAt(16) != ':'
+                || texto.charAt(19) != '.' || texto.charAt(23) != 'Z') {
+            throw new FormatoFechaInvalidoException();
+        }
+        try {
+            LocalDateTime local = LocalDateTime.of(leer(texto, 0, 4), leer(texto, 5, 2), leer(texto, 8, 2),
+                    leer(texto, 11, 2), leer(texto, 14, 2), leer(texto, 17, 2), leer(texto, 20, 3) * 1_000_000);
+            return new Date(local.atZone(ZONA).toInstant().toEpochMilli());
+        } catch (DateTimeException e) {
+            throw new FormatoFechaInvalidoException();
+        }
+    }
+
+    private static void escribir(char[] texto, int desde, int valor, int digitos) {
+        for (int i = desde + digitos - 1; i >= desde; i--) {
+            texto[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+    }
+
+    private static int leer(String texto, int desde, int digitos) throws FormatoFechaInvalidoException {
+        int valor = 0;
+        for (int i = desde; i < desde + digitos; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new FormatoFechaInvalidoException();
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
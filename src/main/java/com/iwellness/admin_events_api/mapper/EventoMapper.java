@@ -1,25 +1,42 @@
 package com.iwellness.admin_events_api.mapper;
 
+import com.iwellness.admin_events_api.dto.BloqueOcupadoDTO;
+import com.iwellness.admin_events_api.dto.EstadisticaMensualDTO;
 import com.iwellness.admin_events_api.dto.EventoDTO;
+import com.iwellness.admin_events_api.dto.ExcepcionOcurrenciaDTO;
+import com.iwellness.admin_events_api.dto.OcurrenciaDTO;
+import com.iwellness.admin_events_api.dto.ResumenEventoDTO;
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
 import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.ExcepcionOcurrencia;
+import com.iwellness.admin_events_api.entidades.ReglaRecurrencia;
 import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.RecurrenciaInvalidaException;
+import com.iwellness.admin_events_api.repositorios.IntervaloOcupado;
+import com.iwellness.admin_events_api.repositorios.ResumenEvento;
+import com.iwellness.admin_events_api.servicios.Ocurrencia;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class EventoMapper {
 
-    private static SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-
-    public static  Evento eventoDtoToEvento(EventoDTO eventoDTO) throws FormatoFechaInvalidoException {
+    public static  Evento eventoDtoToEvento(EventoDTO eventoDTO) throws FormatoFechaInvalidoException, RecurrenciaInvalidaException {
         Date fechaEventoFormateada = null;
         if(eventoDTO.getFecha() != null){
+            fechaEventoFormateada = stringToFecha(eventoDTO.getFecha());
+        }
+        String recurrencia = null;
+        if (eventoDTO.getRecurrencia() != null) {
             try {
-                fechaEventoFormateada = dateFormat.parse(eventoDTO.getFecha());
-            } catch (ParseException e) {
-                throw new FormatoFechaInvalidoException();
+                recurrencia = ReglaRecurrencia.normalizar(eventoDTO.getRecurrencia(), fechaEventoFormateada);
+            } catch (IllegalArgumentException e) {
+                throw new RecurrenciaInvalidaException();
             }
         }
         return Evento.builder()
@@ -32,14 +49,94 @@ public class EventoMapper {
                 .asistentes(eventoDTO.getAsistentes())
                 .tipo(eventoDTO.getTipo())
                 .color(eventoDTO.getColor())
+                .recurrencia(recurrencia)
                 .build();
     }
 
     public static EventoDTO eventoToEventoDto(Evento evento)
     {
-        String format = evento.getFecha() != null ? dateFormat.format(evento.getFecha()) : null;
+        String format = evento.getFecha() != null ? CodificadorFechas.formatear(evento.getFecha()) : null;
         return new EventoDTO(evento.getId(), evento.getTitulo(), evento.getDescripcion(), format,
                 evento.getDuracion(), evento.getCosto(), evento.getAsistentes(), evento.getTipo(),evento.getColor(),
-                evento.getActivo());
+                evento.getActivo(), evento.getRecurrencia());
+    }
+
+    public static ResumenEventoDTO resumenToDto(ResumenEvento resumen) {
+        String format = resumen.fecha() != null ? CodificadorFechas.formatear(resumen.fecha()) : null;
+        return new ResumenEventoDTO(resumen.id(), resumen.titulo(), format, resumen.tipo(), resumen.color(), resumen.activo());
+    }
+
+    /**
+     * Deja los campos de una consulta por columnas listos para serializar, con la fecha en el formato de la API.
+     */
+    public static Map<String, Object> camposToJson(Map<String, Object> campos) {
+        campos.replaceAll((campo, valor) -> valor instanceof Date fecha ? CodificadorFechas.formatear(fecha) : valor);
+        return campos;
+    }
+
+    public static BloqueOcupadoDTO intervaloToDto(IntervaloOcupado intervalo) {
+        return new BloqueOcupadoDTO(CodificadorFechas.formatear(intervalo.inicio()), CodificadorFechas.formatear(intervalo.fin()));
+    }
+
+    public static OcurrenciaDTO ocurrenciaToDto(Ocurrencia ocurrencia) {
+        Evento evento = ocurrencia.evento();
+        String fechaOriginal = ocurrencia.fechaOriginal() != null ? CodificadorFechas.formatear(ocurrencia.fechaOriginal()) : null;
+        return new OcurrenciaDTO(evento.getId(), fechaOriginal, CodificadorFechas.formatear(ocurrencia.fecha()),
+                ocurrencia.duracion(), ocurrencia.titulo(), ocurrencia.descripcion(), evento.getCosto(),
+                evento.getAsistentes(), evento.getTipo(), evento.getColor(), evento.getActivo());
+    }
+
+    public static ExcepcionOcurrencia excepcionDtoToExcepcion(ExcepcionOcurrenciaDTO excepcionDTO) throws FormatoFechaInvalidoException {
+        return ExcepcionOcurrencia.builder()
+                .fechaOriginal(excepcionDTO.getFechaOriginal() != null ? stringToFecha(excepcionDTO.getFechaOriginal()) : null)
+                .cancelada(excepcionDTO.getCancelada())
+                .fecha(excepcionDTO.getFecha() != null ? stringToFecha(excepcionDTO.getFecha()) : null)
+                .duracion(excepcionDTO.getDuracion())
+                .titulo(excepcionDTO.getTitulo())
+                .descripcion(excepcionDTO.getDescripcion())
+                .build();
+    }
+
+    /**
+     * Une las filas de activos y cancelados de cada mes y tipo; llegan ordenadas por mes y tipo.
+     */
+    public static List<EstadisticaMensualDTO> estadisticasToDto(List<EstadisticaMensual> filas) {
+        List<EstadisticaMensualDTO> estadisticas = new ArrayList<>();
+        EstadisticaMensualDTO actual = null;
+        for (EstadisticaMensual fila : filas) {
+            String mes = String.format("%04d-%02d", fila.getMes() / 100, fila.getMes() % 100);
+            if (actual == null || !actual.getMes().equals(mes) || !Objects.equals(actual.getTipo(), fila.getTipo())) {
+                actual = new EstadisticaMensualDTO();
+                actual.setMes(mes);
+                actual.setTipo(fila.getTipo());
+                estadisticas.add(actual);
+            }
+            if (Boolean.TRUE.equals(fila.getActivo())) {
+                actual.setCantidadActivos(fila.getCantidad());
+                actual.setCostoActivos(fila.getCosto());
+                actual.setDuracionActivos(fila.getDuracion());
+            } else {
+                actual.setCantidadCancelados(fila.getCantidad());
+                actual.setCostoCancelados(fila.getCosto());
+                actual.setDuracionCancelados(fila.getDuracion());
+            }
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Convierte un mes yyyy-MM al entero yyyyMM que usa la tabla de estadisticas.
+     */
+    public static int stringToMes(String mes) throws FormatoFechaInvalidoException {
+        try {
+            YearMonth anioMes = YearMonth.parse(mes);
+            return anioMes.getYear() * 100 + anioMes.getMonthValue();
+        } catch (DateTimeParseException e) {
+            throw new FormatoFechaInvalidoException();
+        }
+    }
+
+    public static Date stringToFecha(String fecha) throws FormatoFechaInvalidoException {
+        return CodificadorFechas.parsear(fecha);
     }
 }
@@ -0,0 +1,18 @@
+package com.iwellness.admin_events_api.repositorios;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+public interface EstadisticaMensualRepositorio extends JpaRepository<EstadisticaMensual, Long>{
+
+    @Query("select s from EstadisticaMensual s where s.mes >= :desde and s.mes <= :hasta and s.cantidad <> 0"
+            + " and (:tipo is null or s.tipo = :tipo) order by s.mes asc, s.id asc")
+    List<EstadisticaMensual> findEnRango(@Param("desde") Integer desde, @Param("hasta") Integer hasta, @Param("tipo") TipoEvento tipo);
+
+}
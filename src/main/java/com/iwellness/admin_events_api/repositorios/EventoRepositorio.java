@@ -1,9 +1,108 @@
 package com.iwellness.admin_events_api.repositorios;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
 
 public interface EventoRepositorio extends JpaRepository<Evento, Long>{
-    
+
+    @Query("select new com.iwellness.admin_events_api.repositorios.VersionListaEventos(count(e), coalesce(sum(e.version), 0), coalesce(max(e.id), 0)) from Evento e")
+    VersionListaEventos findVersionLista();
+
+    @Query("select e.id from Evento e order by e.id asc")
+    List<Long> findAllIds();
+
+    @Query("select new com.iwellness.admin_events_api.repositorios.ResumenEvento(e.id, e.titulo, e.fecha, e.tipo, e.color, e.activo)"
+            + " from Evento e order by e.id asc")
+    List<ResumenEvento> findResumenes();
+
+    /**
+     * Pares id de evento y correo, para completar los asistentes de una consulta por columnas.
+     */
+    @Query("select e.id, a from Evento e join e.asistentes a order by e.id asc")
+    List<Object[]> findAsistentesPorEvento();
+
+    List<Evento> findAllByOrderByIdAsc(Limit limite);
+
+    List<Evento> findByIdGreaterThanOrderByIdAsc(Long idCursor, Limit limite);
+
+    List<Evento> findByFechaNotNullOrderByFechaAscIdAsc(Limit limite);
+
+    @Query("select e from Evento e where e.fecha > :fechaCursor or (e.fecha = :fechaCursor and e.id > :idCursor) order by e.fecha asc, e.id asc")
+    List<Evento> findSiguientesPorFecha(@Param("fechaCursor") Date fechaCursor, @Param("idCursor") Long idCursor, Limit limite);
+
+    @Query("select e from Evento e where e.fecha >= :desde and e.fecha < :hasta"
+            + " and (:tipo is null or e.tipo = :tipo) and (:activo is null or e.activo = :activo)"
+            + " order by e.fecha asc, e.id asc")
+    List<Evento> findEnRangoDeFechas(@Param("desde") Date desde, @Param("hasta") Date hasta,
+            @Param("tipo") TipoEvento tipo, @Param("activo") Boolean activo);
+
+    @Query("select e from Evento e where e.recurrencia is null and e.fecha >= :desde and e.fecha < :hasta"
+            + " and (:tipo is null or e.tipo = :tipo) and (:activo is null or e.activo = :activo)"
+            + " order by e.fecha asc, e.id asc")
+    List<Evento> findUnicosEnRango(@Param("desde") Date desde, @Param("hasta") Date hasta,
+            @Param("tipo") TipoEvento tipo, @Param("activo") Boolean activo);
+
+    /**
+     * Series que empiezan antes de hasta y terminan desde desde en adelante. Recorre solo el
+     * indice fin_serie, que no incluye los eventos sin recurrencia; sin orden, para no preferir
+     * recorrer la tabla por id.
+     */
+    @Query("select e from Evento e where e.finSerie >= :desde and e.fecha < :hasta"
+            + " and (:tipo is null or e.tipo = :tipo) and (:activo is null or e.activo = :activo)")
+    List<Evento> findSeriesEnRango(@Param("desde") Date desde, @Param("hasta") Date hasta,
+            @Param("tipo") TipoEvento tipo, @Param("activo") Boolean activo);
+
+    /**
+     * Eventos sin recurrencia y activos de alguno de los correos que se cruzan con [inicio, fin). Parte
+     * del indice de asistentes y compara fecha y fecha_fin, sin calcular el fin de cada fila. Un evento
+     * con activo en NULL no fue cancelado, porque cancelar siempre guarda false.
+     */
+    @Query("select distinct e from Evento e join e.asistentes a where a in :correos and (e.activo is null or e.activo = true)"
+            + " and e.recurrencia is null and e.fecha < :fin and e.fechaFin > :inicio and (:idExcluido is null or e.id <> :idExcluido)"
+            + " order by e.fecha asc, e.id asc")
+    List<Evento> findSolapados(@Param("correos") Collection<String> correos, @Param("inicio") Date inicio,
+            @Param("fin") Date fin, @Param("idExcluido") Long idExcluido);
+
+    /**
+     * Series activas de alguno de los correos que pueden tener ocurrencias en [desde, hasta).
+     */
+    @Query("select distinct e from Evento e join e.asistentes a where a in :correos and (e.activo is null or e.activo = true)"
+            + " and e.finSerie >= :desde and e.fecha < :hasta and (:idExcluido is null or e.id <> :idExcluido)")
+    List<Evento> findSeriesDeAsistentes(@Param("correos") Collection<String> correos, @Param("desde") Date desde,
+            @Param("hasta") Date hasta, @Param("idExcluido") Long idExcluido);
+
+    /**
+     * Horarios de los eventos sin recurrencia y activos de alguno de los correos que se cruzan con
+     * [desde, hasta). Solo lee fecha y fecha_fin; un evento con varios de los correos puede repetirse.
+     */
+    @Query("select new com.iwellness.admin_events_api.repositorios.IntervaloOcupado(e.fecha, e.fechaFin)"
+            + " from Evento e join e.asistentes a where a in :correos and (e.activo is null or e.activo = true)"
+            + " and e.recurrencia is null and e.fecha < :hasta and e.fechaFin > :desde")
+    List<IntervaloOcupado> findIntervalosOcupados(@Param("correos") Collection<String> correos,
+            @Param("desde") Date desde, @Param("hasta") Date hasta);
+
+    @Query("select e from Evento e join e.asistentes a where a = :correo and e.id > :idCursor order by e.id asc")
+    List<Evento> findPorAsistente(@Param("correo") String correo, @Param("idCursor") Long idCursor, Limit limite);
+
+    /**
+     * Marca como enviado el recordatorio de la ocurrencia que empieza en fecha, si no lo estaba ya.
+     * No cambia la version porque no es una edicion del evento. Con varias instancias solo una
+     * obtiene 1 y encola el recordatorio. Una edicion concurrente no pisa la marca porque Evento
+     * usa @DynamicUpdate y solo escribe las columnas que cambia.
+     */
+    @Modifying
+    @Query("update Evento e set e.recordatorioEnviadoPara = :fecha where e.id = :id"
+            + " and (e.recordatorioEnviadoPara is null or e.recordatorioEnviadoPara < :fecha)")
+    int marcarRecordatorio(@Param("id") Long id, @Param("fecha") Date fecha);
+
 }
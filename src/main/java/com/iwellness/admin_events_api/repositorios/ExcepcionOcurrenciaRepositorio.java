@@ -0,0 +1,43 @@
+package com.iwellness.admin_events_api.repositorios;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.iwellness.admin_events_api.entidades.ExcepcionOcurrencia;
+
+public interface ExcepcionOcurrenciaRepositorio extends JpaRepository<ExcepcionOcurrencia, Long>{
+
+    Optional<ExcepcionOcurrencia> findByEventoIdAndFechaOriginal(Long eventoId, Date fechaOriginal);
+
+    /**
+     * Excepciones de las series indicadas que pueden afectar a [desde, hasta): las de ocurrencias
+     * que la regla genera desde desdeOriginal y las que fueron movidas dentro del rango.
+     */
+    @Query("select x from ExcepcionOcurrencia x where x.eventoId in :ids"
+            + " and ((x.fechaOriginal >= :desdeOriginal and x.fechaOriginal < :hasta) or (x.fecha < :hasta and x.fechaFin > :desde)"
+            + " or (x.fecha >= :desde and x.fecha < :hasta))")
+    List<ExcepcionOcurrencia> findEnRango(@Param("ids") Collection<Long> ids, @Param("desdeOriginal") Date desdeOriginal,
+            @Param("desde") Date desde, @Param("hasta") Date hasta);
+
+    /**
+     * Series con alguna ocurrencia movida que se cruza con [desde, hasta); pueden no alcanzar el
+     * rango por sus propias fechas.
+     */
+    @Query("select distinct x.eventoId from ExcepcionOcurrencia x where x.cancelada = false and x.fecha < :hasta"
+            + " and (x.fechaFin > :desde or x.fecha >= :desde)")
+    List<Long> findEventosConMovidas(@Param("desde") Date desde, @Param("hasta") Date hasta);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ExcepcionOcurrencia x where x.eventoId = :eventoId")
+    int deleteByEventoId(@Param("eventoId") Long eventoId);
+
+}
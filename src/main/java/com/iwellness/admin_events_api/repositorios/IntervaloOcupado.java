@@ -0,0 +1,9 @@
+package com.iwellness.admin_events_api.repositorios;
+
+import java.util.Date;
+
+/**
+ * Intervalo [inicio, fin) en que un evento ocupa a sus asistentes.
+ */
+public record IntervaloOcupado(Date inicio, Date fin) {
+}
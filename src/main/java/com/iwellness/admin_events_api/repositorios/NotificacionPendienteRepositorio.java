@@ -0,0 +1,48 @@
+package com.iwellness.admin_events_api.repositorios;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.iwellness.admin_events_api.entidades.EstadoNotificacion;
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
+
+public interface NotificacionPendienteRepositorio extends JpaRepository<NotificacionPendiente, Long>{
+
+    @Query("select n.id from NotificacionPendiente n where n.estado in :estados and n.proximoIntento <= :ahora order by n.id asc")
+    List<Long> findIdsListos(@Param("estados") Collection<EstadoNotificacion> estados, @Param("ahora") Date ahora, Limit limite);
+
+    /**
+     * Marca las notificaciones como EN_PROCESO con un token de reserva propio. Solo se reservan las que
+     * siguen listas, asi dos despachadores nunca envian la misma notificacion a la vez.
+     */
+    @Transactional
+    @Modifying
+    @Query("update NotificacionPendiente n set n.estado = com.iwellness.admin_events_api.entidades.EstadoNotificacion.EN_PROCESO,"
+            + " n.reserva = :reserva, n.proximoIntento = :finReserva"
+            + " where n.id in :ids and n.estado in :estados and n.proximoIntento <= :ahora")
+    int reservar(@Param("ids") Collection<Long> ids, @Param("estados") Collection<EstadoNotificacion> estados,
+            @Param("reserva") String reserva, @Param("finReserva") Date finReserva, @Param("ahora") Date ahora);
+
+    /**
+     * Agrega a una reserva las notificaciones pendientes de los mismos eventos aunque su ventana de
+     * agrupacion no haya terminado, para enviarlas en el mismo mensaje.
+     */
+    @Transactional
+    @Modifying
+    @Query("update NotificacionPendiente n set n.estado = com.iwellness.admin_events_api.entidades.EstadoNotificacion.EN_PROCESO,"
+            + " n.reserva = :reserva, n.proximoIntento = :finReserva"
+            + " where n.idEvento in :idsEventos and n.estado = com.iwellness.admin_events_api.entidades.EstadoNotificacion.PENDIENTE")
+    int reservarDeEventos(@Param("idsEventos") Collection<Long> idsEventos, @Param("reserva") String reserva,
+            @Param("finReserva") Date finReserva);
+
+    List<NotificacionPendiente> findByReservaOrderByIdAsc(String reserva);
+
+}
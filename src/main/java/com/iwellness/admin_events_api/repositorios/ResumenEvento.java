@@ -0,0 +1,11 @@
+package com.iwellness.admin_events_api.repositorios;
+
+import java.util.Date;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+/**
+ * Columnas que necesita la vista de calendario; se lee sin descripcion ni asistentes.
+ */
+public record ResumenEvento(Long id, String titulo, Date fecha, TipoEvento tipo, String color, Boolean activo) {
+}
@@ -0,0 +1,8 @@
+package com.iwellness.admin_events_api.repositorios;
+
+/**
+ * Resumen barato de la tabla de eventos: cambia con cualquier alta, baja o modificacion,
+ * porque los ids siempre crecen y cada escritura incrementa la version de su evento.
+ */
+public record VersionListaEventos(Long cantidad, Long sumaVersiones, Long maximoId) {
+}
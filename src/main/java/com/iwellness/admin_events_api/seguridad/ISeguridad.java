@@ -1,7 +1,9 @@
 package com.iwellness.admin_events_api.seguridad;
 
+import com.iwellness.admin_events_api.exceptions.SeguridadNoDisponibleException;
+import com.iwellness.admin_events_api.exceptions.UsuarioNoAutenticadoException;
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutorizadoPorRolException;
 
 public interface ISeguridad {
-    void validarRol() throws UsuarioNoAutorizadoPorRolException;
+    void validarRol() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException, SeguridadNoDisponibleException;
 }
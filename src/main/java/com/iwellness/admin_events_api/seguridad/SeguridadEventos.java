@@ -1,29 +1,195 @@
 package com.iwellness.admin_events_api.seguridad;
 
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.iwellness.admin_events_api.clientes.UsuarioFeignCliente;
 import com.iwellness.admin_events_api.dto.UsuarioDTO;
+import com.iwellness.admin_events_api.exceptions.SeguridadNoDisponibleException;
+import com.iwellness.admin_events_api.exceptions.UsuarioNoAutenticadoException;
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutorizadoPorRolException;
 
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+
 @Service
 @Qualifier("SeguridadEventos")
 public class SeguridadEventos implements ISeguridad{
 
+    private static final Logger logger = LoggerFactory.getLogger(SeguridadEventos.class);
+
     @Autowired
     private UsuarioFeignCliente usuarioFeignCliente;
+
+    @Autowired
+    private HttpServletRequest request;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${seguridad.cache.ttl-segundos:60}")
+    private long ttlSegundos;
+
+    @Value("${seguridad.cache.tamano-maximo:10000}")
+    private long tamanoMaximo;
+
+    @Value("${seguridad.circuito.ventana:20}")
+    private int ventanaCircuito;
+
+    @Value("${seguridad.circuito.llamadas-minimas:10}")
+    private int llamadasMinimas;
+
+    @Value("${seguridad.circuito.umbral-fallos:50}")
+    private float umbralFallos;
+
+    @Value("${seguridad.circuito.llamada-lenta-ms:1000}")
+    private long llamadaLentaMs;
+
+    @Value("${seguridad.circuito.abierto-ms:10000}")
+    private long abiertoMs;
+
+    @Value("${seguridad.concurrencia.maxima:20}")
+    private int concurrenciaMaxima;
+
+    @Value("${seguridad.concurrencia.espera-ms:50}")
+    private long esperaConcurrenciaMs;
     
     private final List<String> rolesAutorizados = List.of("Admin");
 
-    public void validarRol() throws UsuarioNoAutorizadoPorRolException{
-        UsuarioDTO usuarioDTO = usuarioFeignCliente.getUsuario();
-        if(!rolesAutorizados.contains(usuarioDTO.getRol().getNombre())){
+    private AsyncCache<String, UsuarioDTO> usuariosPorToken;
+
+    private Supplier<UsuarioDTO> consultaUsuario;
+
+    @PostConstruct
+    public void iniciarCache() {
+        usuariosPorToken = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosPorToken, "seguridad.usuarios");
+        iniciarProteccion();
+    }
+
+    /**
+     * Limita las consultas simultaneas a seguridad-ms y corta el circuito cuando fallan o tardan,
+     * asi una caida del servicio se responde con 503 sin ocupar los hilos de Tomcat. Solo cuentan
+     * como fallo los errores de conexion, los timeouts y las respuestas 5xx.
+     */
+    private void iniciarProteccion() {
+        CircuitBreakerRegistry circuitos = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(ventanaCircuito)
+                .minimumNumberOfCalls(llamadasMinimas)
+                .failureRateThreshold(umbralFallos)
+                .slowCallRateThreshold(umbralFallos)
+                .slowCallDurationThreshold(Duration.ofMillis(llamadaLentaMs))
+                .waitDurationInOpenState(Duration.ofMillis(abiertoMs))
+                .recordException(SeguridadEventos::esFalloDeServicio)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(concurrenciaMaxima)
+                .maxWaitDuration(Duration.ofMillis(esperaConcurrenciaMs))
+                .build());
+        CircuitBreaker circuito = circuitos.circuitBreaker("seguridad-ms");
+        Bulkhead bulkhead = bulkheads.bulkhead("seguridad-ms");
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitos).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        // El bulkhead va por fuera: las consultas rechazadas no cuentan para el circuito
+        consultaUsuario = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuito, usuarioFeignCliente::getUsuario));
+    }
+
+    private static boolean esFalloDeServicio(Throwable error) {
+        return error instanceof RetryableException
+                || (error instanceof FeignException feignException && feignException.status() >= 500);
+    }
+
+    /**
+     * Un 401 de seguridad-ms llega como UsuarioNoAutenticadoException; los errores de conexion, los
+     * 5xx y las consultas que el circuito o el limite de concurrencia rechazan, como
+     * SeguridadNoDisponibleException.
+     */
+    public void validarRol() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException, SeguridadNoDisponibleException{
+        UsuarioDTO usuarioDTO;
+        try {
+            usuarioDTO = obtenerUsuario();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new SeguridadNoDisponibleException();
+        } catch (FeignException e) {
+            if (!esFalloDeServicio(e)) {
+                throw e;
+            }
+            logger.warn("seguridad-ms no disponible: {}", e.getMessage());
+            throw new SeguridadNoDisponibleException();
+        } catch (UndeclaredThrowableException e) {
+            // CustomErrorDecoder devuelve esta excepcion para un 401, pero getUsuario no la declara
+            if (e.getUndeclaredThrowable() instanceof UsuarioNoAutenticadoException noAutenticado) {
+                throw noAutenticado;
+            }
+            throw e;
+        }
+        if(usuarioDTO.getRol() == null || !rolesAutorizados.contains(usuarioDTO.getRol().getNombre())){
             throw new UsuarioNoAutorizadoPorRolException();
         }
     }
+
+    /**
+     * Resuelve el usuario del token de la peticion. Si varias peticiones llegan a la vez con el mismo
+     * token solo la primera consulta seguridad-ms; las demas esperan su resultado. Los errores no se
+     * guardan en la cache.
+     */
+    private UsuarioDTO obtenerUsuario() {
+        String token = request.getHeader("Authorization");
+        if (token == null) {
+            return consultaUsuario.get();
+        }
+        CompletableFuture<UsuarioDTO> consultaPropia = new CompletableFuture<>();
+        CompletableFuture<UsuarioDTO> consulta = usuariosPorToken.get(token, (clave, ejecutor) -> consultaPropia);
+        if (consulta == consultaPropia) {
+            // La consulta se hace en el hilo de la peticion para que FeignClientInterceptor reenvie su token
+            try {
+                consultaPropia.complete(consultaUsuario.get());
+            } catch (RuntimeException | Error e) {
+                consultaPropia.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
     
 }
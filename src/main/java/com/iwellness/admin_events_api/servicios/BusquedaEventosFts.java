@@ -0,0 +1,63 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+/**
+ * Busqueda sobre el indice FTS5 eventos_fts que mantiene IndiceBusquedaEventos. Ordena con bm25,
+ * dando mas peso a las coincidencias en el titulo que en la descripcion.
+ */
+@Component
+@ConditionalOnProperty(name = "almacenamiento.tipo", havingValue = "sqlite", matchIfMissing = true)
+public class BusquedaEventosFts implements IBusquedaEventos {
+
+    private static final double PESO_TITULO = 10.0;
+
+    private static final double PESO_DESCRIPCION = 1.0;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> buscarIds(List<String> terminos, Date desde, Date hasta, TipoEvento tipo, int desplazamiento, int limite) {
+        StringBuilder sql = new StringBuilder("select eventos_fts.rowid from eventos_fts")
+                .append(" join usuarios u on u.id_usuarios = eventos_fts.rowid")
+                .append(" where eventos_fts match ?");
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(consultaFts(terminos));
+        // Hibernate guarda las fechas como milisegundos y el tipo por su ordinal
+        if (desde != null) {
+            sql.append(" and u.fecha >= ?");
+            parametros.add(desde.getTime());
+        }
+        if (hasta != null) {
+            sql.append(" and u.fecha < ?");
+            parametros.add(hasta.getTime());
+        }
+        if (tipo != null) {
+            sql.append(" and u.tipo = ?");
+            parametros.add(tipo.ordinal());
+        }
+        sql.append(" order by bm25(eventos_fts, ").append(PESO_TITULO).append(", ").append(PESO_DESCRIPCION)
+                .append("), eventos_fts.rowid limit ? offset ?");
+        parametros.add(limite);
+        parametros.add(desplazamiento);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, parametros.toArray());
+    }
+
+    /**
+     * Cada termino va entre comillas, asi la entrada del usuario no se interpreta como sintaxis FTS5.
+     */
+    private String consultaFts(List<String> terminos) {
+        return terminos.stream().map(termino -> "\"" + termino + "\"*").collect(Collectors.joining(" "));
+    }
+}
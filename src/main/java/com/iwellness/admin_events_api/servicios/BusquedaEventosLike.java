@@ -0,0 +1,68 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Busqueda con like para los almacenamientos sin FTS5 (PostgreSQL y H2 en las pruebas).
+ * Recorre la tabla, por lo que no escala como el indice de SQLite; ordena primero los
+ * eventos cuyo titulo tiene una palabra que empieza con el primer termino. A diferencia de
+ * FTS5, que separa las palabras en cualquier signo, aqui solo se separan por espacios.
+ */
+@Component
+@ConditionalOnExpression("'${almacenamiento.tipo:sqlite}' != 'sqlite'")
+public class BusquedaEventosLike implements IBusquedaEventos {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> buscarIds(List<String> terminos, Date desde, Date hasta, TipoEvento tipo, int desplazamiento, int limite) {
+        StringBuilder jpql = new StringBuilder("select e.id from Evento e where 1 = 1");
+        for (int i = 0; i < terminos.size(); i++) {
+            jpql.append(" and (").append(empiezaPalabra("e.titulo", i)).append(" or ").append(empiezaPalabra("e.descripcion", i)).append(")");
+        }
+        if (desde != null) {
+            jpql.append(" and e.fecha >= :desde");
+        }
+        if (hasta != null) {
+            jpql.append(" and e.fecha < :hasta");
+        }
+        if (tipo != null) {
+            jpql.append(" and e.tipo = :tipo");
+        }
+        jpql.append(" order by case when ").append(empiezaPalabra("e.titulo", 0)).append(" then 0 else 1 end, e.id asc");
+        TypedQuery<Long> consulta = entityManager.createQuery(jpql.toString(), Long.class);
+        for (int i = 0; i < terminos.size(); i++) {
+            // Los terminos solo tienen letras y digitos, no hace falta escapar comodines
+            consulta.setParameter("inicio" + i, terminos.get(i) + "%");
+            consulta.setParameter("palabra" + i, "% " + terminos.get(i) + "%");
+        }
+        if (desde != null) {
+            consulta.setParameter("desde", desde);
+        }
+        if (hasta != null) {
+            consulta.setParameter("hasta", hasta);
+        }
+        if (tipo != null) {
+            consulta.setParameter("tipo", tipo);
+        }
+        return consulta.setFirstResult(desplazamiento).setMaxResults(limite).getResultList();
+    }
+
+    /**
+     * El termino i es el prefijo de una palabra de la columna: esta al comienzo o despues de un espacio.
+     */
+    private static String empiezaPalabra(String columna, int i) {
+        return "(lower(" + columna + ") like :inicio" + i + " or lower(" + columna + ") like :palabra" + i + ")";
+    }
+}
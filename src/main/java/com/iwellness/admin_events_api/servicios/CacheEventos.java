@@ -0,0 +1,137 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iwellness.admin_events_api.entidades.Evento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache de eventos por id. Guarda copias desacopladas de Hibernate, que no deben modificarse.
+ *
+ * Cada invalidacion incrementa una generacion; una carga solo se guarda si no hubo invalidaciones
+ * desde que empezo, asi una lectura que corrio en paralelo con una escritura no deja en la cache
+ * el valor anterior al commit. Si la cache esta deshabilitada los metodos llaman directo al cargador.
+ */
+@Component
+public class CacheEventos {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${eventos.cache.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${eventos.cache.tamano-maximo:10000}")
+    private long tamanoMaximo;
+
+    @Value("${eventos.cache.ttl-segundos:300}")
+    private long ttlSegundos;
+
+    private final AtomicLong generacion = new AtomicLong();
+
+    private Cache<Long, Evento> eventosPorId;
+
+    @PostConstruct
+    public void iniciarCache() {
+        if (!habilitada) {
+            return;
+        }
+        eventosPorId = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, eventosPorId, "eventos");
+    }
+
+    public Evento obtener(Long id, Function<Long, Evento> cargador) {
+        if (eventosPorId == null) {
+            return cargador.apply(id);
+        }
+        long inicio = generacion.get();
+        Evento evento = eventosPorId.getIfPresent(id);
+        if (evento == null) {
+            evento = cargador.apply(id);
+            if (evento != null) {
+                evento = copiar(evento);
+                guardar(evento, inicio);
+            }
+        }
+        return evento;
+    }
+
+    /**
+     * Devuelve los eventos de los ids indicados, en el mismo orden, y carga con una sola
+     * llamada al cargador los que no estan en la cache. Requiere la cache habilitada.
+     */
+    public List<Evento> obtenerTodos(Supplier<List<Long>> ids, Function<List<Long>, List<Evento>> cargador) {
+        long inicio = generacion.get();
+        List<Long> idsEventos = ids.get();
+        Map<Long, Evento> encontrados = new HashMap<>(eventosPorId.getAllPresent(idsEventos));
+        if (encontrados.size() < idsEventos.size()) {
+            List<Long> faltantes = idsEventos.stream().filter(id -> !encontrados.containsKey(id)).toList();
+            for (Evento evento : cargador.apply(faltantes)) {
+                Evento copia = copiar(evento);
+                guardar(copia, inicio);
+                encontrados.put(copia.getId(), copia);
+            }
+        }
+        List<Evento> eventos = new ArrayList<>(idsEventos.size());
+        for (Long id : idsEventos) {
+            Evento evento = encontrados.get(id);
+            if (evento != null) {
+                eventos.add(evento);
+            }
+        }
+        return eventos;
+    }
+
+    public boolean habilitada() {
+        return eventosPorId != null;
+    }
+
+    /**
+     * Descarta los eventos cuando la transaccion en curso confirma; sin transaccion, en el momento.
+     */
+    public void invalidar(Collection<Long> ids) {
+        if (eventosPorId == null || ids.isEmpty()) {
+            return;
+        }
+        Transacciones.alConfirmar(() -> descartar(ids));
+    }
+
+    private void descartar(Collection<Long> ids) {
+        generacion.incrementAndGet();
+        eventosPorId.invalidateAll(ids);
+    }
+
+    private void guardar(Evento evento, long inicio) {
+        // compute bloquea la clave, por lo que una invalidacion concurrente ocurre antes o despues, nunca en medio
+        eventosPorId.asMap().compute(evento.getId(), (id, actual) -> generacion.get() == inicio ? evento : actual);
+    }
+
+    private Evento copiar(Evento evento) {
+        return new Evento(evento.getId(), evento.getTitulo(), evento.getDescripcion(), evento.getFecha(),
+                evento.getDuracion(), evento.getCosto(),
+                evento.getAsistentes() == null ? null : new ArrayList<>(evento.getAsistentes()),
+                evento.getTipo(), evento.getColor(), evento.getActivo(), evento.getVersion(), evento.getFechaFin(),
+                evento.getRecurrencia(), evento.getFinSerie(), evento.getRecordatorioEnviadoPara());
+    }
+}
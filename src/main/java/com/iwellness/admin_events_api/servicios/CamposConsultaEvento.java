@@ -0,0 +1,60 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.iwellness.admin_events_api.exceptions.CampoDesconocidoException;
+
+/**
+ * Campos que se pueden pedir con fields= y la columna que lee cada uno. Los asistentes no son
+ * una columna de la tabla de eventos y se leen aparte, solo si se piden.
+ */
+final class CamposConsultaEvento {
+
+    static final String CAMPO_ASISTENTES = "asistentes";
+
+    private static final Map<String, String> COLUMNAS = new LinkedHashMap<>();
+
+    static {
+        COLUMNAS.put("id", "e.id");
+        COLUMNAS.put("titulo", "e.titulo");
+        COLUMNAS.put("descripcion", "e.descripcion");
+        COLUMNAS.put("fecha", "e.fecha");
+        COLUMNAS.put("duracion", "e.duracion");
+        COLUMNAS.put("costo", "e.costo");
+        COLUMNAS.put("tipo", "e.tipo");
+        COLUMNAS.put("color", "e.color");
+        COLUMNAS.put("activo", "e.activo");
+        COLUMNAS.put("recurrencia", "e.recurrencia");
+    }
+
+    private CamposConsultaEvento() {
+    }
+
+    static void validar(Collection<String> campos) throws CampoDesconocidoException {
+        if (campos.isEmpty()) {
+            throw new CampoDesconocidoException();
+        }
+        for (String campo : campos) {
+            if (!COLUMNAS.containsKey(campo) && !CAMPO_ASISTENTES.equals(campo)) {
+                throw new CampoDesconocidoException();
+            }
+        }
+    }
+
+    /**
+     * Consulta JPQL de solo las columnas pedidas, mas el id que ordena y une los asistentes.
+     * Los nombres ya estan validados, por lo que se pueden concatenar.
+     */
+    static String consulta(List<String> campos) {
+        StringBuilder jpql = new StringBuilder("select e.id as id");
+        for (String campo : campos) {
+            if (!"id".equals(campo) && COLUMNAS.containsKey(campo)) {
+                jpql.append(", ").append(COLUMNAS.get(campo)).append(" as ").append(campo);
+            }
+        }
+        return jpql.append(" from Evento e order by e.id asc").toString();
+    }
+}
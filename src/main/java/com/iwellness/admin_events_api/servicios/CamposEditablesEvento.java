@@ -0,0 +1,146 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.ReglaRecurrencia;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.mapper.CodificadorFechas;
+
+/**
+ * Campos de {@link Evento} que se pueden modificar con PATCH, cada uno con su lector, su setter
+ * y su conversor desde el valor JSON. El registro se arma una sola vez; cualquier otra clave
+ * (por ejemplo id) se rechaza antes de tocar la entidad.
+ */
+final class CamposEditablesEvento {
+
+    static final String CAMPO_ACTIVO = "activo";
+
+    // Campos que cambian las fechas de las ocurrencias de una serie
+    static final Set<String> CAMPOS_HORARIO = Set.of("fecha", "duracion", "recurrencia");
+
+    private static final Map<String, CampoEditable<?>> CAMPOS = Map.of(
+            "titulo", new CampoEditable<>(Evento::getTitulo, Evento::setTitulo, CamposEditablesEvento::aTexto),
+            "descripcion", new CampoEditable<>(Evento::getDescripcion, Evento::setDescripcion, CamposEditablesEvento::aTexto),
+            "fecha", new CampoEditable<>(Evento::getFecha, Evento::setFecha, CamposEditablesEvento::aFecha),
+            "duracion", new CampoEditable<>(Evento::getDuracion, Evento::setDuracion, CamposEditablesEvento::aLong),
+            "costo", new CampoEditable<>(Evento::getCosto, Evento::setCosto, CamposEditablesEvento::aLong),
+            "asistentes", new CampoEditable<>(Evento::getAsistentes, Evento::setAsistentes, CamposEditablesEvento::aListaTexto),
+            "tipo", new CampoEditable<>(Evento::getTipo, Evento::setTipo, CamposEditablesEvento::aTipo),
+            "color", new CampoEditable<>(Evento::getColor, Evento::setColor, CamposEditablesEvento::aTexto),
+            "recurrencia", new CampoEditable<>(Evento::getRecurrencia, Evento::setRecurrencia, CamposEditablesEvento::aTexto));
+
+    private CamposEditablesEvento() {
+    }
+
+    /**
+     * Verifica que todas las claves sean editables; activo se admite porque cancela el evento.
+     */
+    static void validar(Set<String> campos) throws CampoNoEditableException {
+        for (String campo : campos) {
+            if (!CAMPOS.containsKey(campo) && !CAMPO_ACTIVO.equals(campo)) {
+                throw new CampoNoEditableException();
+            }
+        }
+    }
+
+    /**
+     * Aplica los valores al evento y devuelve los campos cuyo valor realmente cambio. Si el evento
+     * queda con recurrencia, la regla se valida contra la fecha resultante.
+     */
+    static Set<String> aplicar(Evento evento, Map<String, Object> editados) throws CampoNoEditableException, FormatoFechaInvalidoException {
+        validar(editados.keySet());
+        Set<String> cambiados = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> entry : editados.entrySet()) {
+            CampoEditable<?> campo = CAMPOS.get(entry.getKey());
+            if (campo != null && campo.aplicar(evento, entry.getValue())) {
+                cambiados.add(entry.getKey());
+            }
+        }
+        if (evento.getRecurrencia() != null && !Collections.disjoint(cambiados, CAMPOS_HORARIO)) {
+            try {
+                evento.setRecurrencia(ReglaRecurrencia.normalizar(evento.getRecurrencia(), evento.getFecha()));
+            } catch (IllegalArgumentException e) {
+                throw new CampoNoEditableException();
+            }
+        }
+        return cambiados;
+    }
+
+    private static String aTexto(Object valor) throws CampoNoEditableException {
+        if (valor instanceof String texto) {
+            return texto;
+        }
+        throw new CampoNoEditableException();
+    }
+
+    private static Long aLong(Object valor) throws CampoNoEditableException {
+        try {
+            return Long.valueOf(valor.toString());
+        } catch (NumberFormatException e) {
+            throw new CampoNoEditableException();
+        }
+    }
+
+    private static Date aFecha(Object valor) throws CampoNoEditableException, FormatoFechaInvalidoException {
+        return CodificadorFechas.parsear(aTexto(valor));
+    }
+
+    private static List<String> aListaTexto(Object valor) throws CampoNoEditableException {
+        if (!(valor instanceof List<?> lista)) {
+            throw new CampoNoEditableException();
+        }
+        List<String> textos = new ArrayList<>(lista.size());
+        for (Object elemento : lista) {
+            textos.add(aTexto(elemento));
+        }
+        return textos;
+    }
+
+    private static TipoEvento aTipo(Object valor) throws CampoNoEditableException {
+        try {
+            return TipoEvento.valueOf(aTexto(valor));
+        } catch (IllegalArgumentException e) {
+            throw new CampoNoEditableException();
+        }
+    }
+
+    private static boolean iguales(Object actual, Object nuevo) {
+        // Hibernate devuelve Timestamp y colecciones propias, que no se comparan por valor con Date y List
+        if (actual instanceof Date fechaActual && nuevo instanceof Date fechaNueva) {
+            return fechaActual.getTime() == fechaNueva.getTime();
+        }
+        if (actual instanceof List<?> listaActual && nuevo instanceof List<?>) {
+            return new ArrayList<>(listaActual).equals(nuevo);
+        }
+        return Objects.equals(actual, nuevo);
+    }
+
+    @FunctionalInterface
+    private interface Conversor<T> {
+        T convertir(Object valor) throws CampoNoEditableException, FormatoFechaInvalidoException;
+    }
+
+    private record CampoEditable<T>(Function<Evento, T> lector, BiConsumer<Evento, T> setter, Conversor<T> conversor) {
+
+        boolean aplicar(Evento evento, Object valor) throws CampoNoEditableException, FormatoFechaInvalidoException {
+            T nuevo = valor == null ? null : conversor.convertir(valor);
+            if (iguales(lector.apply(evento), nuevo)) {
+                return false;
+            }
+            setter.accept(evento, nuevo);
+            return true;
+        }
+    }
+}
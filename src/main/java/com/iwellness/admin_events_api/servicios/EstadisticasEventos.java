@@ -0,0 +1,199 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Mantiene la tabla estadisticas_eventos. Cada escritura registra lo que el evento aportaba antes
+ * y lo que aporta despues; las diferencias se juntan por mes, tipo y estado durante la transaccion
+ * y se aplican antes de confirmarla, con un upsert por fila afectada aunque el lote tenga miles
+ * de eventos. Un evento con recurrencia cuenta una vez, en el mes en que empieza.
+ */
+@Component
+public class EstadisticasEventos {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasEventos.class);
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    /**
+     * Upsert de SQLite y PostgreSQL; tipo guarda el ordinal del enum, igual que la entidad.
+     */
+    private static final String UPSERT = "insert into estadisticas_eventos"
+            + " (id, mes, tipo, activo, cantidad, costo, duracion)"
+            + " values (:id, :mes, :tipo, :activo, :cantidad, :costo, :duracion)"
+            + " on conflict (id) do update set cantidad = estadisticas_eventos.cantidad + excluded.cantidad,"
+            + " costo = estadisticas_eventos.costo + excluded.costo, duracion = estadisticas_eventos.duracion + excluded.duracion";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lo que un evento suma a su fila de estadisticas; null si no tiene fecha.
+     */
+    public record Aporte(int mes, TipoEvento tipo, boolean activo, long costo, long duracion) {
+    }
+
+    public static Aporte aporte(Evento evento) {
+        if (evento == null) {
+            return null;
+        }
+        return aporte(evento.getFecha(), evento.getTipo(), evento.getActivo(), evento.getCosto(), evento.getDuracion());
+    }
+
+    public static int mesDe(Date fecha) {
+        LocalDate dia = LocalDate.ofInstant(fecha.toInstant(), ZONA);
+        return dia.getYear() * 100 + dia.getMonthValue();
+    }
+
+    /**
+     * Registra el cambio de un evento en la transaccion en curso. anterior es null para un evento
+     * nuevo y nuevo es null para uno eliminado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Aporte anterior, Aporte nuevo) {
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        Map<Long, Acumulado> pendientes = pendientes();
+        acumular(pendientes, anterior, -1);
+        acumular(pendientes, nuevo, 1);
+    }
+
+    /**
+     * Vuelve a calcular toda la tabla a partir de los eventos. Devuelve la cantidad de filas.
+     */
+    @Transactional
+    public int reconstruir() {
+        entityManager.createQuery("delete from EstadisticaMensual").executeUpdate();
+        Map<Long, Acumulado> totales = new TreeMap<>();
+        try (Stream<Object[]> filas = entityManager.createQuery(
+                "select e.fecha, e.tipo, e.activo, e.costo, e.duracion from Evento e", Object[].class).getResultStream()) {
+            filas.forEach(fila -> acumular(totales,
+                    aporte((Date) fila[0], (TipoEvento) fila[1], (Boolean) fila[2], (Long) fila[3], (Long) fila[4]), 1));
+        }
+        totales.values().forEach(acumulado -> entityManager.persist(acumulado.aEntidad()));
+        logger.info("Estadisticas de eventos reconstruidas: {} filas", totales.size());
+        return totales.size();
+    }
+
+    /**
+     * Reconstruye la tabla si esta vacia y hay eventos, por ejemplo la primera vez que se despliega.
+     */
+    @Transactional
+    public void reconstruirSiVacia() {
+        boolean vacia = entityManager.createQuery("select count(s) from EstadisticaMensual s", Long.class).getSingleResult() == 0;
+        if (vacia && entityManager.createQuery("select count(e) from Evento e where e.fecha is not null", Long.class).getSingleResult() > 0) {
+            reconstruir();
+        }
+    }
+
+    private static Aporte aporte(Date fecha, TipoEvento tipo, Boolean activo, Long costo, Long duracion) {
+        if (fecha == null) {
+            return null;
+        }
+        // activo en NULL no es un evento cancelado, igual que en las busquedas de solapamientos
+        return new Aporte(mesDe(fecha), tipo, !Boolean.FALSE.equals(activo), costo == null ? 0 : costo, duracion == null ? 0 : duracion);
+    }
+
+    private Map<Long, Acumulado> pendientes() {
+        @SuppressWarnings("unchecked")
+        Map<Long, Acumulado> pendientes = (Map<Long, Acumulado>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Map<Long, Acumulado> nuevos = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    aplicar(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(EstadisticasEventos.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+
+    /**
+     * Suma las diferencias a cada fila; si la fila no existe se crea en la misma sentencia, asi dos
+     * instancias que crean la misma fila a la vez no chocan con la clave primaria. Las filas se
+     * recorren en orden de id para que dos transacciones nunca las bloqueen en orden distinto.
+     */
+    private void aplicar(Map<Long, Acumulado> pendientes) {
+        for (Map.Entry<Long, Acumulado> entry : pendientes.entrySet()) {
+            Acumulado acumulado = entry.getValue();
+            if (acumulado.vacio()) {
+                continue;
+            }
+            entityManager.createNativeQuery(UPSERT)
+                    .setParameter("id", entry.getKey())
+                    .setParameter("mes", acumulado.mes)
+                    .setParameter("tipo", acumulado.tipo == null ? null : acumulado.tipo.ordinal())
+                    .setParameter("activo", acumulado.activo)
+                    .setParameter("cantidad", acumulado.cantidad)
+                    .setParameter("costo", acumulado.costo)
+                    .setParameter("duracion", acumulado.duracion)
+                    .executeUpdate();
+        }
+        pendientes.clear();
+    }
+
+    private static void acumular(Map<Long, Acumulado> acumulados, Aporte aporte, int signo) {
+        if (aporte == null) {
+            return;
+        }
+        Acumulado acumulado = acumulados.computeIfAbsent(EstadisticaMensual.idDe(aporte.mes(), aporte.tipo(), aporte.activo()),
+                id -> new Acumulado(aporte.mes(), aporte.tipo(), aporte.activo()));
+        acumulado.cantidad += signo;
+        acumulado.costo += signo * aporte.costo();
+        acumulado.duracion += signo * aporte.duracion();
+    }
+
+    private static final class Acumulado {
+
+        private final int mes;
+        private final TipoEvento tipo;
+        private final boolean activo;
+        private long cantidad;
+        private long costo;
+        private long duracion;
+
+        Acumulado(int mes, TipoEvento tipo, boolean activo) {
+            this.mes = mes;
+            this.tipo = tipo;
+            this.activo = activo;
+        }
+
+        boolean vacio() {
+            return cantidad == 0 && costo == 0 && duracion == 0;
+        }
+
+        EstadisticaMensual aEntidad() {
+            return new EstadisticaMensual(EstadisticaMensual.idDe(mes, tipo, activo), mes, tipo, activo, cantidad, costo, duracion);
+        }
+    }
+}
@@ -1,102 +1,1013 @@
 package com.iwellness.admin_events_api.servicios;
 
-import java.lang.reflect.Field;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import com.iwellness.admin_events_api.exceptions.CampoDesconocidoException;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.ConflictoHorarioException;
+import com.iwellness.admin_events_api.exceptions.CursorInvalidoException;
 import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.LoteDemasiadoGrandeException;
+import com.iwellness.admin_events_api.exceptions.OcurrenciaNoEncontradaException;
+import com.iwellness.admin_events_api.exceptions.RangoFechasInvalidoException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 
-import com.iwellness.admin_events_api.email.ServicioEmail;
+import com.iwellness.admin_events_api.entidades.EstadoNotificacion;
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
 import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.ExcepcionOcurrencia;
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
+import com.iwellness.admin_events_api.entidades.ReglaRecurrencia;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.entidades.TipoNotificacion;
+import com.iwellness.admin_events_api.repositorios.EstadisticaMensualRepositorio;
 import com.iwellness.admin_events_api.repositorios.EventoRepositorio;
+import com.iwellness.admin_events_api.repositorios.ExcepcionOcurrenciaRepositorio;
+import com.iwellness.admin_events_api.repositorios.NotificacionPendienteRepositorio;
+import com.iwellness.admin_events_api.repositorios.IntervaloOcupado;
+import com.iwellness.admin_events_api.repositorios.ResumenEvento;
+import com.iwellness.admin_events_api.repositorios.VersionListaEventos;
+
+import org.hibernate.Hibernate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 
 import org.springframework.stereotype.Service;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class EventoServicioImpl implements IEventoServicio{
 
+    public static final int LIMITE_PAGINA_MAXIMO = 500;
+
+    public static final int TAMANO_LOTE_MAXIMO = 5000;
+
+    private static final int TAMANO_LOTE_RECORRIDO = 200;
+
+    // Igual a hibernate.jdbc.batch_size: cada tramo se envia en un solo lote JDBC por sentencia
+    private static final int TAMANO_TRAMO_ESCRITURA = 50;
+
+    // Cantidad de ids por consulta IN al completar la cache, por debajo del limite de parametros de SQLite
+    private static final int TAMANO_CONSULTA_IDS = 500;
+
+    private static final int TERMINOS_BUSQUEDA_MAXIMOS = 16;
+
+    private static final Pattern TERMINO_BUSQUEDA = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    // Los resultados por relevancia no tienen una clave estable, el cursor guarda el desplazamiento
+    private static final String CURSOR_BUSQUEDA = "RELEVANCIA";
+
+    // Rango maximo de una consulta de ocurrencias y horizonte al buscar conflictos de una serie
+    private static final long VENTANA_OCURRENCIAS_MAXIMA_MS = 366L * 24 * 60 * 60 * 1000;
+
+    // Meses que se pueden pedir en una consulta de estadisticas
+    private static final int MESES_ESTADISTICAS_MAXIMOS = 120;
+
+    private static final String ERROR_EVENTO_INVALIDO = "Datos del evento invalidos";
+
+    private static final String ERROR_EVENTO_NO_ENCONTRADO = "Evento no encontrado";
+
     @Autowired
     private EventoRepositorio eventoRepositorio;
 
     @Autowired
-    private ServicioEmail servicioEmail;
+    private NotificacionPendienteRepositorio notificacionRepositorio;
+
+    @Autowired
+    private ExcepcionOcurrenciaRepositorio excepcionRepositorio;
+
+    @Autowired
+    private CacheEventos cacheEventos;
+
+    // Las modificaciones esperan este tiempo antes de enviarse, asi varias ediciones seguidas llegan en un solo mensaje
+    @Value("${notificaciones.agrupacion.ventana-ms:60000}")
+    private long ventanaAgrupacionMs;
+
+    @Autowired
+    private EstadisticasEventos estadisticas;
+
+    @Autowired
+    private EstadisticaMensualRepositorio estadisticaRepositorio;
+
+    @Autowired
+    private ProgramadorRecordatorios programadorRecordatorios;
+
+    @Autowired
+    private FeedCambiosEventos feedCambios;
+
+    @Autowired
+    private IBusquedaEventos busquedaEventos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Evento> getAllEventos() {
-        return eventoRepositorio.findAll(); 
+        if (!cacheEventos.habilitada()) {
+            return inicializarAsistentes(eventoRepositorio.findAll());
+        }
+        // Solo se leen los ids; los eventos que no estan en la cache se cargan en bloque
+        return cacheEventos.obtenerTodos(eventoRepositorio::findAllIds, this::cargarPorIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionListaEventos getVersionListaEventos() {
+        return eventoRepositorio.findVersionLista();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumenEvento> getResumenesEventos() {
+        return eventoRepositorio.findResumenes();
+    }
+
+    /**
+     * Lee de la base solo las columnas pedidas, en el orden de la peticion. Los asistentes se
+     * leen con una segunda consulta unicamente si estan entre los campos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCamposEventos(List<String> campos) throws CampoDesconocidoException {
+        CamposConsultaEvento.validar(campos);
+        List<Tuple> filas = entityManager.createQuery(CamposConsultaEvento.consulta(campos), Tuple.class).getResultList();
+        Map<Long, List<String>> asistentes = campos.contains(CamposConsultaEvento.CAMPO_ASISTENTES)
+                ? agruparAsistentes() : Map.of();
+        List<Map<String, Object>> eventos = new ArrayList<>(filas.size());
+        for (Tuple fila : filas) {
+            Long id = fila.get("id", Long.class);
+            Map<String, Object> valores = new LinkedHashMap<>();
+            for (String campo : campos) {
+                valores.put(campo, CamposConsultaEvento.CAMPO_ASISTENTES.equals(campo)
+                        ? asistentes.getOrDefault(id, List.of()) : fila.get(campo));
+            }
+            eventos.add(valores);
+        }
+        return eventos;
+    }
+
+    private Map<Long, List<String>> agruparAsistentes() {
+        Map<Long, List<String>> asistentes = new HashMap<>();
+        for (Object[] fila : eventoRepositorio.findAsistentesPorEvento()) {
+            asistentes.computeIfAbsent((Long) fila[0], id -> new ArrayList<>()).add((String) fila[1]);
+        }
+        return asistentes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaEventos getPaginaEventos(OrdenEventos orden, String cursor, int limite) throws CursorInvalidoException {
+        int tamano = Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        // Se pide un registro extra para saber si existe una pagina siguiente sin hacer un count
+        Limit limiteConsulta = Limit.of(tamano + 1);
+        boolean primeraPagina = cursor == null || cursor.isBlank();
+        List<Evento> eventos;
+        if (orden == OrdenEventos.FECHA) {
+            if (primeraPagina) {
+                eventos = eventoRepositorio.findByFechaNotNullOrderByFechaAscIdAsc(limiteConsulta);
+            } else {
+                String[] partes = decodificarCursor(cursor, orden.name(), 2);
+                eventos = eventoRepositorio.findSiguientesPorFecha(new Date(parsearLong(partes[0])),
+                        parsearLong(partes[1]), limiteConsulta);
+            }
+        } else {
+            if (primeraPagina) {
+                eventos = eventoRepositorio.findAllByOrderByIdAsc(limiteConsulta);
+            } else {
+                String[] partes = decodificarCursor(cursor, orden.name(), 1);
+                eventos = eventoRepositorio.findByIdGreaterThanOrderByIdAsc(parsearLong(partes[0]), limiteConsulta);
+            }
+        }
+        return armarPagina(inicializarAsistentes(eventos), tamano, orden);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaEventos getEventosPorAsistente(String correo, String cursor, int limite) throws CursorInvalidoException {
+        int tamano = Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        long idCursor = cursor == null || cursor.isBlank() ? 0L : parsearLong(decodificarCursor(cursor, OrdenEventos.ID.name(), 1)[0]);
+        List<Evento> eventos = eventoRepositorio.findPorAsistente(correo, idCursor, Limit.of(tamano + 1));
+        return armarPagina(inicializarAsistentes(eventos), tamano, OrdenEventos.ID);
     }
 
+    /**
+     * Busca por palabras en titulo y descripcion. Solo se consideran letras y digitos; cada palabra
+     * se busca como prefijo y todas deben aparecer. Sin palabras validas el resultado es vacio.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public PaginaEventos buscarEventos(String texto, Date desde, Date hasta, TipoEvento tipo, String cursor, int limite)
+            throws CursorInvalidoException, RangoFechasInvalidoException {
+        if (desde != null && hasta != null && !desde.before(hasta)) {
+            throw new RangoFechasInvalidoException();
+        }
+        int tamano = Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        long desplazamiento = cursor == null || cursor.isBlank() ? 0L
+                : parsearLong(decodificarCursor(cursor, CURSOR_BUSQUEDA, 1)[0]);
+        List<String> terminos = terminosBusqueda(texto);
+        if (terminos.isEmpty() || desplazamiento < 0 || desplazamiento > Integer.MAX_VALUE) {
+            return new PaginaEventos(List.of(), null);
+        }
+        List<Long> ids = busquedaEventos.buscarIds(terminos, desde, hasta, tipo, (int) desplazamiento, tamano + 1);
+        String siguienteCursor = null;
+        if (ids.size() > tamano) {
+            ids = ids.subList(0, tamano);
+            siguienteCursor = codificarCursor(CURSOR_BUSQUEDA + ":" + (desplazamiento + tamano));
+        }
+        return new PaginaEventos(cargarEnOrden(ids), siguienteCursor);
+    }
+
+    /**
+     * Recorre todos los eventos por lotes ordenados por id, liberando el contexto de persistencia
+     * despues de cada lote para que el consumo de memoria no dependa del tamaño de la tabla.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerEventos(Consumer<Evento> consumidor) {
+        Limit lote = Limit.of(TAMANO_LOTE_RECORRIDO);
+        List<Evento> eventos = eventoRepositorio.findAllByOrderByIdAsc(lote);
+        while (!eventos.isEmpty()) {
+            eventos.forEach(consumidor);
+            Long ultimoId = eventos.get(eventos.size() - 1).getId();
+            entityManager.clear();
+            eventos = eventoRepositorio.findByIdGreaterThanOrderByIdAsc(ultimoId, lote);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Evento> getEventosEnRango(Date desde, Date hasta, TipoEvento tipo, Boolean activo) throws RangoFechasInvalidoException {
+        if (!desde.before(hasta)) {
+            throw new RangoFechasInvalidoException();
+        }
+        return inicializarAsistentes(eventoRepositorio.findEnRangoDeFechas(desde, hasta, tipo, activo));
+    }
+
+    /**
+     * Ocurrencias que empiezan en [desde, hasta): los eventos sin recurrencia del rango y las
+     * ocurrencias de las series que lo alcanzan, calculadas solo para ese rango.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Ocurrencia> getOcurrencias(Date desde, Date hasta, TipoEvento tipo, Boolean activo) throws RangoFechasInvalidoException {
+        if (!desde.before(hasta) || hasta.getTime() - desde.getTime() > VENTANA_OCURRENCIAS_MAXIMA_MS) {
+            throw new RangoFechasInvalidoException();
+        }
+        List<Ocurrencia> ocurrencias = new ArrayList<>();
+        inicializarAsistentes(eventoRepositorio.findUnicosEnRango(desde, hasta, tipo, activo))
+                .forEach(evento -> ocurrencias.add(Ocurrencia.unica(evento)));
+        List<Evento> series = agregarSeriesConMovidas(inicializarAsistentes(eventoRepositorio.findSeriesEnRango(desde, hasta, tipo, activo)),
+                desde, hasta, serie -> (tipo == null || tipo == serie.getTipo()) && (activo == null || activo.equals(serie.getActivo())));
+        List<ExcepcionOcurrencia> excepciones = buscarExcepciones(series, desde, hasta);
+        for (Evento serie : series) {
+            for (Ocurrencia ocurrencia : ExpansionOcurrencias.expandir(serie, excepciones, desde, hasta)) {
+                if (!ocurrencia.fecha().before(desde)) {
+                    ocurrencias.add(ocurrencia);
+                }
+            }
+        }
+        ocurrencias.sort(ExpansionOcurrencias.ORDEN);
+        return ocurrencias;
+    }
+
+    /**
+     * Cancela o modifica una sola ocurrencia de un evento con recurrencia. Si el cambio deja la
+     * ocurrencia igual a la de la regla, se borra la excepcion. Devuelve null si el evento no existe.
+     */
+    @Override
+    @Transactional(rollbackFor = OcurrenciaNoEncontradaException.class)
+    public Evento editarOcurrencia(Long idEvento, ExcepcionOcurrencia cambios) throws OcurrenciaNoEncontradaException {
+        Optional<Evento> serieOpt = eventoRepositorio.findById(idEvento);
+        if (serieOpt.isEmpty()) {
+            return null;
+        }
+        Evento serie = serieOpt.get();
+        Date fechaOriginal = cambios.getFechaOriginal();
+        if (serie.getRecurrencia() == null || fechaOriginal == null
+                || !ReglaRecurrencia.parsear(serie.getRecurrencia()).esOcurrencia(serie.getFecha(), fechaOriginal)) {
+            throw new OcurrenciaNoEncontradaException();
+        }
+        ExcepcionOcurrencia excepcion = excepcionRepositorio.findByEventoIdAndFechaOriginal(idEvento, fechaOriginal)
+                .orElseGet(() -> ExcepcionOcurrencia.builder().eventoId(idEvento).fechaOriginal(fechaOriginal).build());
+        Date fecha = cambios.getFecha() != null ? cambios.getFecha() : fechaOriginal;
+        excepcion.setCancelada(Boolean.TRUE.equals(cambios.getCancelada()));
+        excepcion.setFecha(fecha);
+        excepcion.setDuracion(cambios.getDuracion());
+        excepcion.setFechaFin(Evento.calcularFechaFin(fecha, cambios.getDuracion() != null ? cambios.getDuracion() : serie.getDuracion()));
+        excepcion.setTitulo(cambios.getTitulo());
+        excepcion.setDescripcion(cambios.getDescripcion());
+        boolean sinCambios = !excepcion.getCancelada() && fecha.getTime() == fechaOriginal.getTime()
+                && excepcion.getDuracion() == null && excepcion.getTitulo() == null && excepcion.getDescripcion() == null;
+        if (sinCambios) {
+            if (excepcion.getId() != null) {
+                excepcionRepositorio.delete(excepcion);
+            }
+        } else {
+            excepcionRepositorio.save(excepcion);
+        }
+        // La serie no cambia de columnas, pero su version da el ETag y debe reflejar la excepcion
+        entityManager.lock(serie, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        entityManager.flush();
+        Hibernate.initialize(serie.getAsistentes());
+        encolarNotificaciones(serie, TipoNotificacion.MODIFICACION);
+        programarRecordatorios(List.of(serie));
+        cacheEventos.invalidar(List.of(idEvento));
+        feedCambios.publicar(TipoCambioEvento.MODIFICADO, serie);
+        return serie;
+    }
+
+    /**
+     * Encola el aviso a los asistentes de cada recordatorio vencido y lo marca como enviado en el
+     * evento, en la misma transaccion. Se descartan los de eventos eliminados, los de ocurrencias
+     * que ya empezaron y los que otra instancia ya encolo; los de eventos que cambiaron despues
+     * de programarse se vuelven a programar con su estado actual.
+     */
+    @Override
+    @Transactional
+    public int enviarRecordatorios(List<ProgramadorRecordatorios.Recordatorio> recordatorios) {
+        Map<Long, Evento> eventos = buscarPorIds(recordatorios.stream().map(ProgramadorRecordatorios.Recordatorio::idEvento).distinct().toList());
+        List<NotificacionPendiente> notificaciones = new ArrayList<>();
+        Map<Long, Evento> cambiados = new LinkedHashMap<>();
+        long ahora = System.currentTimeMillis();
+        for (ProgramadorRecordatorios.Recordatorio recordatorio : recordatorios) {
+            Evento evento = eventos.get(recordatorio.idEvento());
+            if (evento == null) {
+                continue;
+            }
+            if (!Objects.equals(recordatorio.version(), evento.getVersion())) {
+                cambiados.put(evento.getId(), evento);
+            } else if (recordatorio.fecha().getTime() > ahora
+                    && eventoRepositorio.marcarRecordatorio(evento.getId(), recordatorio.fecha()) > 0) {
+                notificaciones.addAll(crearNotificaciones(evento, TipoNotificacion.RECORDATORIO, recordatorio.titulo(), recordatorio.fecha()));
+            }
+        }
+        if (!notificaciones.isEmpty()) {
+            notificacionRepositorio.saveAll(notificaciones);
+        }
+        programarRecordatorios(new ArrayList<>(cambiados.values()));
+        return notificaciones.size();
+    }
+
+    /**
+     * Totales por mes, tipo y estado entre dos meses yyyyMM inclusive. Lee a lo sumo una fila por
+     * mes, tipo y estado de la tabla de estadisticas, sin importar cuantos eventos haya.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstadisticaMensual> getEstadisticas(int mesDesde, int mesHasta, TipoEvento tipo) throws RangoFechasInvalidoException {
+        int meses = (mesHasta / 100 - mesDesde / 100) * 12 + mesHasta % 100 - mesDesde % 100 + 1;
+        if (meses < 1 || meses > MESES_ESTADISTICAS_MAXIMOS) {
+            throw new RangoFechasInvalidoException();
+        }
+        return estadisticaRepositorio.findEnRango(mesDesde, mesHasta, tipo);
+    }
+
+    @Override
+    public int reconstruirEstadisticas() {
+        return estadisticas.reconstruir();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Evento getEventoById(Long idEvento) {
-        return eventoRepositorio.findById(idEvento).orElse(null);
+        return cacheEventos.obtener(idEvento, id -> {
+            Evento evento = eventoRepositorio.findById(id).orElse(null);
+            if (evento != null) {
+                Hibernate.initialize(evento.getAsistentes());
+            }
+            return evento;
+        });
     }
 
     @Override
+    @Transactional
     public Evento crearEvento(Evento evento) {
         evento.setActivo(true);
-        return eventoRepositorio.save(evento);
+        Evento creado = eventoRepositorio.save(evento);
+        estadisticas.registrar(null, EstadisticasEventos.aporte(creado));
+        programarRecordatorios(List.of(creado));
+        feedCambios.publicar(TipoCambioEvento.CREADO, creado);
+        return creado;
     }
 
     @Override
+    @Transactional
     public Evento editarEvento(Evento evento) {
-        return eventoRepositorio.save(evento);
+        // El cuerpo del PUT no trae version: se toma la actual para que el merge actualice el evento existente
+        Optional<Evento> actual = evento.getId() == null ? Optional.empty() : eventoRepositorio.findById(evento.getId());
+        // El merge copia el estado nuevo sobre la entidad actual: lo que aportaba se toma antes de guardar
+        EstadisticasEventos.Aporte anterior = EstadisticasEventos.aporte(actual.orElse(null));
+        if (actual.isPresent()) {
+            descartarExcepcionesSiCambiaHorario(actual.get(), evento);
+            evento.setVersion(actual.get().getVersion());
+            evento.setRecordatorioEnviadoPara(actual.get().getRecordatorioEnviadoPara());
+            reiniciarRecordatorioSiCambiaFecha(evento, actual.get().getFecha());
+            // Igual que en la edicion por lotes, si el cuerpo no trae activo se conserva el actual
+            if (evento.getActivo() == null) {
+                evento.setActivo(actual.get().getActivo());
+            }
+        } else {
+            evento.setId(null);
+            if (evento.getActivo() == null) {
+                evento.setActivo(true);
+            }
+        }
+        Evento editado = eventoRepositorio.save(evento);
+        estadisticas.registrar(anterior, EstadisticasEventos.aporte(editado));
+        Hibernate.initialize(editado.getAsistentes());
+        programarRecordatorios(List.of(editado));
+        cacheEventos.invalidar(List.of(editado.getId()));
+        feedCambios.publicar(actual.isPresent() ? TipoCambioEvento.MODIFICADO : TipoCambioEvento.CREADO, editado);
+        return editado;
     }
 
+    /**
+     * Eventos activos de los mismos asistentes cuyo horario se cruza con el del evento indicado,
+     * sin contar al propio evento si ya existe. Un evento sin duracion ocupa solo su inicio. Si el
+     * evento tiene recurrencia se revisan sus ocurrencias del primer año.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public List<Evento> getConflictos(Evento evento) {
+        if (evento.getFecha() == null || evento.getAsistentes() == null || evento.getAsistentes().isEmpty()) {
+            return List.of();
+        }
+        long duracion = Math.max(1, ExpansionOcurrencias.duracionMs(evento.getDuracion()));
+        if (evento.getRecurrencia() == null) {
+            Date inicio = evento.getFecha();
+            Date fin = new Date(inicio.getTime() + duracion);
+            List<Evento> conflictos = new ArrayList<>(eventoRepositorio.findSolapados(evento.getAsistentes(), inicio, fin, evento.getId()));
+            conflictos.addAll(seriesQueSeCruzan(evento, new TreeMap<>(Map.of(inicio.getTime(), fin.getTime()))));
+            return inicializarAsistentes(conflictos);
+        }
+        // Todas las ocurrencias duran lo mismo: el horario que empieza justo antes de un fin es el de mayor fin
+        TreeMap<Long, Long> horarios = new TreeMap<>();
+        Date horizonte = new Date(evento.getFecha().getTime() + VENTANA_OCURRENCIAS_MAXIMA_MS);
+        for (Date fecha : ReglaRecurrencia.parsear(evento.getRecurrencia()).ocurrencias(evento.getFecha(), evento.getFecha(), horizonte)) {
+            horarios.put(fecha.getTime(), fecha.getTime() + duracion);
+        }
+        List<Evento> conflictos = new ArrayList<>();
+        for (Evento unico : eventoRepositorio.findSolapados(evento.getAsistentes(), new Date(horarios.firstKey()),
+                new Date(horarios.lastEntry().getValue()), evento.getId())) {
+            if (seCruza(horarios, unico.getFecha().getTime(), Math.max(unico.getFechaFin().getTime(), unico.getFecha().getTime() + 1))) {
+                conflictos.add(unico);
+            }
+        }
+        conflictos.addAll(seriesQueSeCruzan(evento, horarios));
+        return inicializarAsistentes(conflictos);
+    }
+
+    private List<Evento> seriesQueSeCruzan(Evento evento, TreeMap<Long, Long> horarios) {
+        Date desde = new Date(horarios.firstKey());
+        Date hasta = new Date(horarios.lastEntry().getValue());
+        List<Evento> series = agregarSeriesConMovidas(eventoRepositorio.findSeriesDeAsistentes(evento.getAsistentes(), desde, hasta, evento.getId()),
+                desde, hasta, serie -> activaDeAlgunCorreo(serie, evento.getAsistentes()) && !serie.getId().equals(evento.getId()));
+        List<ExcepcionOcurrencia> excepciones = buscarExcepciones(series, desde, hasta);
+        List<Evento> conflictos = new ArrayList<>();
+        for (Evento serie : series) {
+            for (Ocurrencia ocurrencia : ExpansionOcurrencias.expandir(serie, excepciones, desde, hasta)) {
+                long inicio = ocurrencia.fecha().getTime();
+                if (seCruza(horarios, inicio, Math.max(ocurrencia.fechaFin().getTime(), inicio + 1))) {
+                    conflictos.add(serie);
+                    break;
+                }
+            }
+        }
+        return conflictos;
+    }
+
+    private static boolean seCruza(TreeMap<Long, Long> horarios, long inicio, long fin) {
+        Map.Entry<Long, Long> anterior = horarios.lowerEntry(fin);
+        return anterior != null && anterior.getValue() > inicio;
+    }
+
+    /**
+     * Bloques en que alguno de los correos esta ocupado dentro de [desde, hasta): une los horarios
+     * de sus eventos activos, incluidos los que se tocan, y los recorta al rango pedido. Los
+     * correos se consultan en grupos con una sola consulta cada uno; las series se expanden solo
+     * dentro del rango.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<IntervaloOcupado> getOcupacion(List<String> correos, Date desde, Date hasta)
+            throws RangoFechasInvalidoException, LoteDemasiadoGrandeException {
+        if (!desde.before(hasta)) {
+            throw new RangoFechasInvalidoException();
+        }
+        validarTamanoLote(correos);
+        List<String> distintos = correos.stream().filter(Objects::nonNull).distinct().toList();
+        List<IntervaloOcupado> intervalos = new ArrayList<>();
+        for (int i = 0; i < distintos.size(); i += TAMANO_CONSULTA_IDS) {
+            intervalos.addAll(eventoRepositorio.findIntervalosOcupados(
+                    distintos.subList(i, Math.min(distintos.size(), i + TAMANO_CONSULTA_IDS)), desde, hasta));
+        }
+        Map<Long, Evento> series = new LinkedHashMap<>();
+        for (int i = 0; i < distintos.size(); i += TAMANO_CONSULTA_IDS) {
+            eventoRepositorio.findSeriesDeAsistentes(distintos.subList(i, Math.min(distintos.size(), i + TAMANO_CONSULTA_IDS)), desde, hasta, null)
+                    .forEach(serie -> series.put(serie.getId(), serie));
+        }
+        List<Evento> todas = agregarSeriesConMovidas(new ArrayList<>(series.values()), desde, hasta,
+                serie -> activaDeAlgunCorreo(serie, distintos));
+        List<ExcepcionOcurrencia> excepciones = buscarExcepciones(todas, desde, hasta);
+        for (Evento serie : todas) {
+            ExpansionOcurrencias.expandir(serie, excepciones, desde, hasta)
+                    .forEach(ocurrencia -> intervalos.add(new IntervaloOcupado(ocurrencia.fecha(), ocurrencia.fechaFin())));
+        }
+        intervalos.sort(Comparator.comparing(IntervaloOcupado::inicio));
+        List<IntervaloOcupado> bloques = new ArrayList<>();
+        long inicio = 0;
+        long fin = Long.MIN_VALUE;
+        for (IntervaloOcupado intervalo : intervalos) {
+            long inicioIntervalo = Math.max(intervalo.inicio().getTime(), desde.getTime());
+            long finIntervalo = Math.min(intervalo.fin().getTime(), hasta.getTime());
+            if (inicioIntervalo > fin) {
+                if (fin > inicio) {
+                    bloques.add(new IntervaloOcupado(new Date(inicio), new Date(fin)));
+                }
+                inicio = inicioIntervalo;
+            }
+            fin = Math.max(fin, finIntervalo);
+        }
+        if (fin > inicio) {
+            bloques.add(new IntervaloOcupado(new Date(inicio), new Date(fin)));
+        }
+        return bloques;
+    }
+
+    /**
+     * Igual que crearEvento, pero una reunion que se cruza con otro evento de sus asistentes no se
+     * guarda. La consulta y la insercion ocurren en la misma transaccion de escritura.
+     */
+    @Override
+    @Transactional(rollbackFor = ConflictoHorarioException.class)
+    public Evento crearEventoSinConflictos(Evento evento) throws ConflictoHorarioException {
+        validarSinConflictos(evento);
+        return crearEvento(evento);
+    }
+
+    @Override
+    @Transactional(rollbackFor = ConflictoHorarioException.class)
+    public Evento editarEventoSinConflictos(Evento evento) throws ConflictoHorarioException {
+        validarSinConflictos(evento);
+        return editarEvento(evento);
+    }
+
+    private void validarSinConflictos(Evento evento) throws ConflictoHorarioException {
+        if (evento.getTipo() == TipoEvento.REUNION && !getConflictos(evento).isEmpty()) {
+            throw new ConflictoHorarioException();
+        }
+    }
+
+    @Override
+    @Transactional
     public void eliminarEvento(Long idEvento) {
-        eventoRepositorio.deleteById(idEvento);
+        excepcionRepositorio.deleteByEventoId(idEvento);
+        eventoRepositorio.findById(idEvento).ifPresent(evento -> {
+            estadisticas.registrar(EstadisticasEventos.aporte(evento), null);
+            eventoRepositorio.delete(evento);
+        });
+        cacheEventos.invalidar(List.of(idEvento));
+        Transacciones.alConfirmar(() -> programadorRecordatorios.quitar(idEvento));
+        feedCambios.publicarEliminacion(idEvento);
     }
 
     @Override
-    public Evento editarParcialEvento(Long idEvento, Map<String,Object> editados) throws FormatoFechaInvalidoException{
+    @Transactional(rollbackFor = {FormatoFechaInvalidoException.class, CampoNoEditableException.class})
+    public Evento editarParcialEvento(Long idEvento, Map<String,Object> editados) throws FormatoFechaInvalidoException, CampoNoEditableException{
+        CamposEditablesEvento.validar(editados.keySet());
         Optional<Evento> eventoOpt = eventoRepositorio.findById(idEvento);
         if (eventoOpt.isPresent()){
             Evento evento = eventoOpt.get();
-            if (editados.containsKey("activo")){
+            EstadisticasEventos.Aporte anterior = EstadisticasEventos.aporte(evento);
+            Date fechaAnterior = evento.getFecha();
+            if (editados.containsKey(CamposEditablesEvento.CAMPO_ACTIVO)){
                 evento.setActivo(false);
-                for (String destinatario : evento.getAsistentes()) {
-                    servicioEmail.enviarEmailCancelacion(destinatario, evento.getTitulo());
-                }
+                encolarNotificaciones(evento, TipoNotificacion.CANCELACION);
+                feedCambios.publicar(TipoCambioEvento.CANCELADO, evento);
             } else {
-                for (Map.Entry<String, Object> entry : editados.entrySet()) {
-                    String key = entry.getKey();
-                    Object value = entry.getValue();
-                    Field field = ReflectionUtils.findField(Evento.class, key);
-                    if (field != null) {
-                        ReflectionUtils.makeAccessible(field);
-                        ReflectionUtils.setField(field, evento, getConvertedValue(field, value));
-                    }
+                boolean eraSerie = evento.getRecurrencia() != null;
+                Set<String> cambiados = CamposEditablesEvento.aplicar(evento, editados);
+                if (eraSerie && !Collections.disjoint(cambiados, CamposEditablesEvento.CAMPOS_HORARIO)) {
+                    excepcionRepositorio.deleteByEventoId(idEvento);
                 }
-                for (String destinatario : evento.getAsistentes()) {
-                    servicioEmail.enviarEmailModificacion(destinatario, evento.getTitulo());
+                if (!cambiados.isEmpty()) {
+                    encolarNotificaciones(evento, TipoNotificacion.MODIFICACION);
+                    feedCambios.publicar(TipoCambioEvento.MODIFICADO, evento);
                 }
             }
+            reiniciarRecordatorioSiCambiaFecha(evento, fechaAnterior);
+            estadisticas.registrar(anterior, EstadisticasEventos.aporte(evento));
+            programarRecordatorios(List.of(evento));
+            cacheEventos.invalidar(List.of(idEvento));
             return eventoRepositorio.save(evento);
         }
         return null;
     }
 
-    private Object getConvertedValue(Field field, Object value) throws FormatoFechaInvalidoException {
-        if(!field.getType().equals(value.getClass())){
-            if(field.getType().equals(Long.class)){
-                return Long.valueOf(value.toString());
+    /**
+     * Crea todos los eventos validos en una transaccion. Los elementos nulos (que no se pudieron
+     * convertir) se informan como error sin detener el resto del lote.
+     */
+    @Override
+    @Transactional
+    public List<ResultadoLote> crearEventos(List<Evento> eventos) throws LoteDemasiadoGrandeException {
+        validarTamanoLote(eventos);
+        List<ResultadoLote> resultados = new ArrayList<>(eventos.size());
+        List<Evento> creados = new ArrayList<>();
+        int pendientes = 0;
+        for (int i = 0; i < eventos.size(); i++) {
+            Evento evento = eventos.get(i);
+            if (evento == null) {
+                resultados.add(ResultadoLote.error(i, null, ERROR_EVENTO_INVALIDO));
+                continue;
             }
-            if(field.getType().equals(Date.class)){
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-                try {
-                    return dateFormat.parse(value.toString());
-                } catch (ParseException e) {
-                    throw new FormatoFechaInvalidoException();
+            evento.setId(null);
+            evento.setActivo(true);
+            Evento creado = eventoRepositorio.save(evento);
+            estadisticas.registrar(null, EstadisticasEventos.aporte(creado));
+            feedCambios.publicar(TipoCambioEvento.CREADO, creado);
+            resultados.add(ResultadoLote.exito(i, creado.getId()));
+            creados.add(creado);
+            if (++pendientes == TAMANO_TRAMO_ESCRITURA) {
+                vaciarContexto();
+                pendientes = 0;
+            }
+        }
+        vaciarContexto();
+        programarRecordatorios(creados);
+        return resultados;
+    }
+
+    /**
+     * Reemplaza los datos de los eventos existentes en una transaccion, leyendolos por tramos
+     * con una sola consulta cada uno. El estado activo se conserva si no viene informado.
+     */
+    @Override
+    @Transactional
+    public List<ResultadoLote> editarEventos(List<Evento> eventos) throws LoteDemasiadoGrandeException {
+        validarTamanoLote(eventos);
+        List<ResultadoLote> resultados = new ArrayList<>(eventos.size());
+        List<Long> modificados = new ArrayList<>();
+        List<Evento> editados = new ArrayList<>();
+        for (int desde = 0; desde < eventos.size(); desde += TAMANO_TRAMO_ESCRITURA) {
+            List<Evento> tramo = eventos.subList(desde, Math.min(eventos.size(), desde + TAMANO_TRAMO_ESCRITURA));
+            Map<Long, Evento> existentes = buscarPorIds(tramo.stream()
+                    .filter(evento -> evento != null && evento.getId() != null)
+                    .map(Evento::getId)
+                    .toList());
+            for (int j = 0; j < tramo.size(); j++) {
+                Evento evento = tramo.get(j);
+                Evento existente = evento == null || evento.getId() == null ? null : existentes.get(evento.getId());
+                if (evento == null) {
+                    resultados.add(ResultadoLote.error(desde + j, null, ERROR_EVENTO_INVALIDO));
+                } else if (existente == null) {
+                    resultados.add(ResultadoLote.error(desde + j, evento.getId(), ERROR_EVENTO_NO_ENCONTRADO));
+                } else {
+                    descartarExcepcionesSiCambiaHorario(existente, evento);
+                    EstadisticasEventos.Aporte anterior = EstadisticasEventos.aporte(existente);
+                    Date fechaAnterior = existente.getFecha();
+                    copiarDatos(evento, existente);
+                    reiniciarRecordatorioSiCambiaFecha(existente, fechaAnterior);
+                    estadisticas.registrar(anterior, EstadisticasEventos.aporte(existente));
+                    feedCambios.publicar(TipoCambioEvento.MODIFICADO, existente);
+                    resultados.add(ResultadoLote.exito(desde + j, existente.getId()));
+                    modificados.add(existente.getId());
+                    editados.add(existente);
+                }
+            }
+            vaciarContexto();
+        }
+        cacheEventos.invalidar(modificados);
+        programarRecordatorios(editados);
+        return resultados;
+    }
+
+    /**
+     * Cancela los eventos indicados y encola el aviso de cancelacion a sus asistentes, igual que
+     * PATCH con activo. Los eventos ya cancelados se informan como exitosos sin volver a notificar.
+     */
+    @Override
+    @Transactional
+    public List<ResultadoLote> cancelarEventos(List<Long> idsEventos) throws LoteDemasiadoGrandeException {
+        validarTamanoLote(idsEventos);
+        List<ResultadoLote> resultados = new ArrayList<>(idsEventos.size());
+        List<Long> modificados = new ArrayList<>();
+        for (int desde = 0; desde < idsEventos.size(); desde += TAMANO_TRAMO_ESCRITURA) {
+            List<Long> tramo = idsEventos.subList(desde, Math.min(idsEventos.size(), desde + TAMANO_TRAMO_ESCRITURA));
+            Map<Long, Evento> existentes = buscarPorIds(tramo.stream().filter(Objects::nonNull).toList());
+            List<NotificacionPendiente> notificaciones = new ArrayList<>();
+            for (int j = 0; j < tramo.size(); j++) {
+                Long idEvento = tramo.get(j);
+                Evento evento = idEvento == null ? null : existentes.get(idEvento);
+                if (evento == null) {
+                    resultados.add(ResultadoLote.error(desde + j, idEvento, ERROR_EVENTO_NO_ENCONTRADO));
+                    continue;
                 }
+                if (!Boolean.FALSE.equals(evento.getActivo())) {
+                    EstadisticasEventos.Aporte anterior = EstadisticasEventos.aporte(evento);
+                    evento.setActivo(false);
+                    estadisticas.registrar(anterior, EstadisticasEventos.aporte(evento));
+                    notificaciones.addAll(crearNotificaciones(evento, TipoNotificacion.CANCELACION));
+                    feedCambios.publicar(TipoCambioEvento.CANCELADO, evento);
+                    modificados.add(idEvento);
+                }
+                resultados.add(ResultadoLote.exito(desde + j, idEvento));
+            }
+            if (!notificaciones.isEmpty()) {
+                notificacionRepositorio.saveAll(notificaciones);
+            }
+            vaciarContexto();
+        }
+        cacheEventos.invalidar(modificados);
+        Transacciones.alConfirmar(() -> modificados.forEach(programadorRecordatorios::quitar));
+        return resultados;
+    }
+
+    private void validarTamanoLote(List<?> lote) throws LoteDemasiadoGrandeException {
+        if (lote.size() > TAMANO_LOTE_MAXIMO) {
+            throw new LoteDemasiadoGrandeException();
+        }
+    }
+
+    private Map<Long, Evento> buscarPorIds(List<Long> ids) {
+        Map<Long, Evento> eventos = new HashMap<>();
+        if (!ids.isEmpty()) {
+            eventoRepositorio.findAllById(ids).forEach(evento -> eventos.put(evento.getId(), evento));
+        }
+        return eventos;
+    }
+
+    private void copiarDatos(Evento origen, Evento destino) {
+        destino.setTitulo(origen.getTitulo());
+        destino.setDescripcion(origen.getDescripcion());
+        destino.setFecha(origen.getFecha());
+        destino.setDuracion(origen.getDuracion());
+        destino.setCosto(origen.getCosto());
+        destino.setAsistentes(origen.getAsistentes());
+        destino.setTipo(origen.getTipo());
+        destino.setColor(origen.getColor());
+        destino.setRecurrencia(origen.getRecurrencia());
+        if (origen.getActivo() != null) {
+            destino.setActivo(origen.getActivo());
+        }
+    }
+
+    /**
+     * Un evento unico cuya fecha cambia vuelve a recibir recordatorio.
+     */
+    private static void reiniciarRecordatorioSiCambiaFecha(Evento evento, Date fechaAnterior) {
+        // En una serie la marca sigue valiendo: las ocurrencias posteriores a ella no tienen recordatorio
+        boolean mismaFecha = fechaAnterior == null ? evento.getFecha() == null
+                : evento.getFecha() != null && fechaAnterior.getTime() == evento.getFecha().getTime();
+        if (evento.getRecurrencia() == null && !mismaFecha) {
+            evento.setRecordatorioEnviadoPara(null);
+        }
+    }
+
+    /**
+     * Actualiza la cola de recordatorios con el estado de los eventos cuando confirma la
+     * transaccion. Las ocurrencias se calculan aqui y solo hasta el limite ya cargado de la cola;
+     * las posteriores entran cuando se carga su ventana.
+     */
+    private void programarRecordatorios(List<Evento> eventos) {
+        Date hasta = programadorRecordatorios.limite();
+        Date desde = new Date();
+        if (eventos.isEmpty() || hasta == null || !desde.before(hasta)) {
+            return;
+        }
+        Map<Long, List<Ocurrencia>> proximas = new HashMap<>();
+        List<Evento> series = new ArrayList<>();
+        for (Evento evento : eventos) {
+            if (!Boolean.TRUE.equals(evento.getActivo()) || evento.getFecha() == null) {
+                proximas.put(evento.getId(), List.of());
+            } else if (evento.getRecurrencia() == null) {
+                proximas.put(evento.getId(), List.of(Ocurrencia.unica(evento)));
+            } else {
+                series.add(evento);
             }
         }
-        return value;
+        List<ExcepcionOcurrencia> excepciones = buscarExcepciones(series, desde, hasta);
+        for (Evento serie : series) {
+            proximas.put(serie.getId(), ExpansionOcurrencias.expandir(serie, excepciones, desde, hasta));
+        }
+        // La version se lee al confirmar, cuando ya tiene el valor que se guardo
+        Transacciones.alConfirmar(() -> eventos.forEach(evento -> programadorRecordatorios.programar(evento, proximas.get(evento.getId()))));
+    }
+
+    /**
+     * Las excepciones se identifican por la fecha que da la regla: si cambia el inicio, la duracion
+     * o la regla de una serie ya no corresponden a sus ocurrencias y se borran.
+     */
+    private void descartarExcepcionesSiCambiaHorario(Evento actual, Evento nuevo) {
+        if (actual.getRecurrencia() == null) {
+            return;
+        }
+        boolean mismaFecha = actual.getFecha() == null ? nuevo.getFecha() == null
+                : nuevo.getFecha() != null && actual.getFecha().getTime() == nuevo.getFecha().getTime();
+        if (!mismaFecha || !Objects.equals(actual.getDuracion(), nuevo.getDuracion())
+                || !Objects.equals(actual.getRecurrencia(), nuevo.getRecurrencia())) {
+            excepcionRepositorio.deleteByEventoId(actual.getId());
+        }
+    }
+
+    /**
+     * Completa las series de un rango con las que solo llegan a el por una ocurrencia movida. Esas
+     * se leen por id y se filtran con el mismo criterio que la consulta de las demas.
+     */
+    private List<Evento> agregarSeriesConMovidas(List<Evento> series, Date desde, Date hasta, Predicate<Evento> criterio) {
+        Set<Long> ids = new HashSet<>();
+        series.forEach(serie -> ids.add(serie.getId()));
+        List<Long> faltantes = excepcionRepositorio.findEventosConMovidas(desde, hasta).stream()
+                .filter(id -> !ids.contains(id))
+                .toList();
+        if (faltantes.isEmpty()) {
+            return series;
+        }
+        List<Evento> todas = new ArrayList<>(series);
+        cargarPorIds(faltantes).stream()
+                .filter(serie -> serie.getRecurrencia() != null && criterio.test(serie))
+                .forEach(todas::add);
+        return todas;
+    }
+
+    private static boolean activaDeAlgunCorreo(Evento serie, Collection<String> correos) {
+        return !Boolean.FALSE.equals(serie.getActivo()) && serie.getAsistentes() != null
+                && !Collections.disjoint(serie.getAsistentes(), correos);
+    }
+
+    /**
+     * Excepciones de las series que pueden afectar a [desde, hasta), en consultas por grupos de ids.
+     */
+    private List<ExcepcionOcurrencia> buscarExcepciones(Collection<Evento> series, Date desde, Date hasta) {
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = series.stream().map(Evento::getId).toList();
+        long duracionMaxima = series.stream().mapToLong(serie -> ExpansionOcurrencias.duracionMs(serie.getDuracion())).max().orElse(0);
+        Date desdeOriginal = new Date(desde.getTime() - duracionMaxima);
+        List<ExcepcionOcurrencia> excepciones = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += TAMANO_CONSULTA_IDS) {
+            excepciones.addAll(excepcionRepositorio.findEnRango(ids.subList(i, Math.min(ids.size(), i + TAMANO_CONSULTA_IDS)),
+                    desdeOriginal, desde, hasta));
+        }
+        return excepciones;
+    }
+
+    /**
+     * Envia los cambios pendientes como lotes JDBC y libera las entidades ya escritas,
+     * asi la memoria de la transaccion no crece con el tamaño del lote.
+     */
+    private void vaciarContexto() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Registra una notificacion por asistente en la misma transaccion que el cambio del evento;
+     * el envio lo hace DespachadorNotificaciones fuera del hilo de la peticion.
+     */
+    private void encolarNotificaciones(Evento evento, TipoNotificacion tipo) {
+        List<NotificacionPendiente> notificaciones = crearNotificaciones(evento, tipo);
+        if (!notificaciones.isEmpty()) {
+            notificacionRepositorio.saveAll(notificaciones);
+        }
+    }
+
+    private List<NotificacionPendiente> crearNotificaciones(Evento evento, TipoNotificacion tipo) {
+        return crearNotificaciones(evento, tipo, evento.getTitulo(), evento.getFecha());
+    }
+
+    private List<NotificacionPendiente> crearNotificaciones(Evento evento, TipoNotificacion tipo, String titulo, Date fecha) {
+        if (evento.getAsistentes() == null || evento.getAsistentes().isEmpty()) {
+            return List.of();
+        }
+        Date ahora = new Date();
+        Date envio = tipo == TipoNotificacion.MODIFICACION ? new Date(ahora.getTime() + ventanaAgrupacionMs) : ahora;
+        return evento.getAsistentes().stream()
+                .map(destinatario -> NotificacionPendiente.builder()
+                        .idEvento(evento.getId())
+                        .destinatario(destinatario)
+                        .tituloEvento(titulo)
+                        .fechaEvento(fecha)
+                        .tipo(tipo)
+                        .estado(EstadoNotificacion.PENDIENTE)
+                        .intentos(0)
+                        .proximoIntento(envio)
+                        .creada(ahora)
+                        .build())
+                .toList();
+    }
+
+    private List<String> terminosBusqueda(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null) {
+            return terminos;
+        }
+        Matcher matcher = TERMINO_BUSQUEDA.matcher(texto.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terminos.size() < TERMINOS_BUSQUEDA_MAXIMOS) {
+            terminos.add(matcher.group());
+        }
+        return terminos;
+    }
+
+    /**
+     * Carga los eventos de los ids conservando su orden, pasando por la cache si esta habilitada.
+     */
+    private List<Evento> cargarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (cacheEventos.habilitada()) {
+            return cacheEventos.obtenerTodos(() -> ids, this::cargarPorIds);
+        }
+        Map<Long, Evento> porId = new HashMap<>();
+        cargarPorIds(ids).forEach(evento -> porId.put(evento.getId(), evento));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<Evento> cargarPorIds(List<Long> ids) {
+        List<Evento> eventos = new ArrayList<>(ids.size());
+        for (int desde = 0; desde < ids.size(); desde += TAMANO_CONSULTA_IDS) {
+            eventos.addAll(eventoRepositorio.findAllById(ids.subList(desde, Math.min(ids.size(), desde + TAMANO_CONSULTA_IDS))));
+        }
+        return inicializarAsistentes(eventos);
+    }
+
+    /**
+     * Carga los asistentes dentro de la transaccion; con el BatchSize de la coleccion se leen
+     * en grupos de eventos en lugar de una consulta por evento.
+     */
+    private List<Evento> inicializarAsistentes(List<Evento> eventos) {
+        eventos.forEach(evento -> Hibernate.initialize(evento.getAsistentes()));
+        return eventos;
+    }
+
+    private PaginaEventos armarPagina(List<Evento> eventos, int tamano, OrdenEventos orden) {
+        if (eventos.size() <= tamano) {
+            return new PaginaEventos(eventos, null);
+        }
+        List<Evento> pagina = eventos.subList(0, tamano);
+        return new PaginaEventos(pagina, codificarCursor(orden, pagina.get(tamano - 1)));
+    }
+
+    private String codificarCursor(OrdenEventos orden, Evento ultimo) {
+        String valor = orden == OrdenEventos.FECHA
+                ? orden.name() + ":" + ultimo.getFecha().getTime() + ":" + ultimo.getId()
+                : orden.name() + ":" + ultimo.getId();
+        return codificarCursor(valor);
+    }
+
+    private String codificarCursor(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodificarCursor(String cursor, String prefijo, int cantidadValores) throws CursorInvalidoException {
+        String valor;
+        try {
+            valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException();
+        }
+        String[] partes = valor.split(":");
+        if (partes.length != cantidadValores + 1 || !prefijo.equals(partes[0])) {
+            throw new CursorInvalidoException();
+        }
+        String[] valores = new String[cantidadValores];
+        System.arraycopy(partes, 1, valores, 0, cantidadValores);
+        return valores;
+    }
+
+    private long parsearLong(String valor) throws CursorInvalidoException {
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new CursorInvalidoException();
+        }
     }
 }
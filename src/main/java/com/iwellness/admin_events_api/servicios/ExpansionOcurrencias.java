@@ -0,0 +1,67 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.ExcepcionOcurrencia;
+import com.iwellness.admin_events_api.entidades.ReglaRecurrencia;
+
+/**
+ * Calcula las ocurrencias de un evento con recurrencia dentro de un rango, aplicando sus
+ * excepciones. Solo se generan las del rango, nunca la serie completa.
+ */
+final class ExpansionOcurrencias {
+
+    static final Comparator<Ocurrencia> ORDEN = Comparator.comparing(Ocurrencia::fecha)
+            .thenComparing(ocurrencia -> ocurrencia.evento().getId(), Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private ExpansionOcurrencias() {
+    }
+
+    /**
+     * Ocurrencias no canceladas que se cruzan con [desde, hasta); una ocurrencia sin duracion
+     * cuenta si empieza dentro del rango. excepciones puede traer tambien las de otras series.
+     */
+    static List<Ocurrencia> expandir(Evento serie, Collection<ExcepcionOcurrencia> excepciones, Date desde, Date hasta) {
+        Map<Long, ExcepcionOcurrencia> porFechaOriginal = new HashMap<>();
+        for (ExcepcionOcurrencia excepcion : excepciones) {
+            if (serie.getId() != null && serie.getId().equals(excepcion.getEventoId())) {
+                porFechaOriginal.put(excepcion.getFechaOriginal().getTime(), excepcion);
+            }
+        }
+        List<Ocurrencia> ocurrencias = new ArrayList<>();
+        Date desdeInicio = new Date(desde.getTime() - duracionMs(serie.getDuracion()));
+        for (Date fecha : ReglaRecurrencia.parsear(serie.getRecurrencia()).ocurrencias(serie.getFecha(), desdeInicio, hasta)) {
+            if (!porFechaOriginal.containsKey(fecha.getTime())) {
+                agregarSiSeCruza(ocurrencias, new Ocurrencia(serie, fecha, fecha, Evento.calcularFechaFin(fecha, serie.getDuracion()),
+                        serie.getTitulo(), serie.getDescripcion()), desde, hasta);
+            }
+        }
+        // Las modificadas se agregan por su fecha efectiva, aunque la original quede fuera del rango
+        for (ExcepcionOcurrencia excepcion : porFechaOriginal.values()) {
+            if (!Boolean.TRUE.equals(excepcion.getCancelada())) {
+                agregarSiSeCruza(ocurrencias, new Ocurrencia(serie, excepcion.getFechaOriginal(), excepcion.getFecha(), excepcion.getFechaFin(),
+                        excepcion.getTitulo() != null ? excepcion.getTitulo() : serie.getTitulo(),
+                        excepcion.getDescripcion() != null ? excepcion.getDescripcion() : serie.getDescripcion()), desde, hasta);
+            }
+        }
+        ocurrencias.sort(ORDEN);
+        return ocurrencias;
+    }
+
+    static long duracionMs(Long duracion) {
+        return (duracion == null ? 0 : duracion) * 60_000L;
+    }
+
+    private static void agregarSiSeCruza(List<Ocurrencia> ocurrencias, Ocurrencia ocurrencia, Date desde, Date hasta) {
+        if (ocurrencia.fecha().before(hasta) && (ocurrencia.fechaFin().after(desde) || !ocurrencia.fecha().before(desde))) {
+            ocurrencias.add(ocurrencia);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.mapper.EventoMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Publica por Server-Sent Events los cambios de eventos confirmados en esta instancia.
+ *
+ * Cada cambio recibe un numero de secuencia y se guarda en un historial circular, asi un cliente
+ * que se reconecta con Last-Event-ID recibe solo lo que se perdio. Si ese id ya no esta en el
+ * historial (o es de otro arranque), o si se perdio mas cambios de los que entran en su cola, se
+ * le envia REINICIO para que vuelva a leer la lista completa.
+ * Cada suscriptor tiene una cola acotada que se envia desde un pool propio; si se llena, el
+ * suscriptor se desconecta y al reconectarse retoma desde el historial.
+ */
+@Component
+public class FeedCambiosEventos {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedCambiosEventos.class);
+
+    static final String REINICIO = "REINICIO";
+
+    private static final CambioEvento LATIDO = new CambioEvento(-1, null, null);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${eventos.stream.historial:1000}")
+    private int tamanoHistorial;
+
+    @Value("${eventos.stream.cola-suscriptor:256}")
+    private int tamanoCola;
+
+    @Value("${eventos.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${eventos.stream.hilos:2}")
+    private int hilos;
+
+    // Distingue los ids de distintos arranques, porque la secuencia vuelve a empezar
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Object candado = new Object();
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+
+    private CambioEvento[] historial;
+
+    private long secuencia;
+
+    private ExecutorService ejecutor;
+
+    @PostConstruct
+    public void iniciar() {
+        historial = new CambioEvento[tamanoHistorial];
+        AtomicInteger contador = new AtomicInteger();
+        ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "feed-eventos-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        suscriptores.forEach(Suscriptor::cerrar);
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Toma el estado actual del evento y lo publica cuando la transaccion en curso confirma.
+     */
+    public void publicar(TipoCambioEvento tipo, Evento evento) {
+        String datos = serializar(EventoMapper.eventoToEventoDto(evento));
+        Transacciones.alConfirmar(() -> distribuir(tipo.name(), datos));
+    }
+
+    public void publicarEliminacion(Long idEvento) {
+        String datos = serializar(Map.of("id", idEvento));
+        Transacciones.alConfirmar(() -> distribuir(TipoCambioEvento.ELIMINADO.name(), datos));
+    }
+
+    public SseEmitter suscribir(String ultimoIdRecibido) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(emitter);
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(suscriptor::cerrar);
+        emitter.onError(error -> suscriptor.cerrar());
+        synchronized (candado) {
+            cambiosAlSuscribirse(ultimoIdRecibido).forEach(suscriptor::encolar);
+            suscriptores.add(suscriptor);
+        }
+        // Envia los encabezados de inmediato aunque no haya cambios pendientes
+        suscriptor.encolar(LATIDO);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${eventos.stream.latido-ms:15000}")
+    public void latido() {
+        suscriptores.forEach(suscriptor -> suscriptor.encolar(LATIDO));
+    }
+
+    /**
+     * Lo que se encola a un suscriptor nuevo: los cambios que se perdio o REINICIO si no se puede
+     * retomar desde su id o si esos cambios no entran en su cola, que se desbordaria al llenarla.
+     */
+    List<CambioEvento> cambiosAlSuscribirse(String ultimoIdRecibido) {
+        synchronized (candado) {
+            List<CambioEvento> pendientes = cambiosDesde(ultimoIdRecibido);
+            if (pendientes == null || pendientes.size() > tamanoCola) {
+                return List.of(new CambioEvento(secuencia, REINICIO, "{}"));
+            }
+            return pendientes;
+        }
+    }
+
+    /**
+     * Cambios posteriores al id indicado; null si no se puede retomar desde ese id.
+     */
+    List<CambioEvento> cambiosDesde(String ultimoIdRecibido) {
+        synchronized (candado) {
+            if (ultimoIdRecibido == null || ultimoIdRecibido.isBlank()) {
+                return List.of();
+            }
+            int separador = ultimoIdRecibido.lastIndexOf('-');
+            if (separador < 0 || !epoca.equals(ultimoIdRecibido.substring(0, separador))) {
+                return null;
+            }
+            long ultimo;
+            try {
+                ultimo = Long.parseLong(ultimoIdRecibido.substring(separador + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            long primeroDisponible = Math.max(1, secuencia - historial.length + 1);
+            if (ultimo > secuencia || ultimo + 1 < primeroDisponible) {
+                return null;
+            }
+            List<CambioEvento> cambios = new ArrayList<>((int) (secuencia - ultimo));
+            for (long i = ultimo + 1; i <= secuencia; i++) {
+                cambios.add(historial[(int) (i % historial.length)]);
+            }
+            return cambios;
+        }
+    }
+
+    private void distribuir(String nombre, String datos) {
+        synchronized (candado) {
+            secuencia++;
+            CambioEvento cambio = new CambioEvento(secuencia, nombre, datos);
+            historial[(int) (secuencia % historial.length)] = cambio;
+            suscriptores.forEach(suscriptor -> suscriptor.encolar(cambio));
+        }
+    }
+
+    private String serializar(Object datos) {
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record CambioEvento(long secuencia, String nombre, String datos) {
+    }
+
+    private final class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<CambioEvento> cola;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean cerrado;
+
+        Suscriptor(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.cola = new ArrayBlockingQueue<>(tamanoCola);
+        }
+
+        void encolar(CambioEvento cambio) {
+            if (cerrado) {
+                return;
+            }
+            if (!cola.offer(cambio)) {
+                if (cambio != LATIDO) {
+                    logger.warn("Suscriptor del feed de eventos desconectado por no leer a tiempo");
+                    cerrar();
+                }
+                return;
+            }
+            programarEnvio();
+        }
+
+        private void programarEnvio() {
+            if (enviando.compareAndSet(false, true)) {
+                ejecutor.execute(this::enviarPendientes);
+            }
+        }
+
+        private void enviarPendientes() {
+            try {
+                CambioEvento cambio;
+                while (!cerrado && (cambio = cola.poll()) != null) {
+                    if (cambio == LATIDO) {
+                        emitter.send(SseEmitter.event().comment("latido"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(epoca + "-" + cambio.secuencia())
+                                .name(cambio.nombre())
+                                .data(cambio.datos(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                cerrar();
+            } finally {
+                enviando.set(false);
+            }
+            // Un cambio encolado mientras se liberaba el indicador no debe quedar esperando al siguiente
+            if (!cerrado && !cola.isEmpty()) {
+                programarEnvio();
+            }
+        }
+
+        void cerrar() {
+            cerrado = true;
+            suscriptores.remove(this);
+            cola.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // ya estaba completado
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.Date;
+import java.util.List;
+
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+
+/**
+ * Busqueda de eventos por palabras en titulo y descripcion. Devuelve los ids ordenados por
+ * relevancia; cada termino es el prefijo de una palabra y todos deben aparecer en el evento.
+ * Donde termina una palabra depende de la implementacion (ver {@link BusquedaEventosLike}).
+ */
+public interface IBusquedaEventos {
+
+    List<Long> buscarIds(List<String> terminos, Date desde, Date hasta, TipoEvento tipo, int desplazamiento, int limite);
+}
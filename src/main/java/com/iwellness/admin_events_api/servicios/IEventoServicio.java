@@ -1,19 +1,54 @@
 package com.iwellness.admin_events_api.servicios;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
 import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.ExcepcionOcurrencia;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.exceptions.CampoDesconocidoException;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.ConflictoHorarioException;
+import com.iwellness.admin_events_api.exceptions.CursorInvalidoException;
 import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.LoteDemasiadoGrandeException;
+import com.iwellness.admin_events_api.exceptions.OcurrenciaNoEncontradaException;
+import com.iwellness.admin_events_api.exceptions.RangoFechasInvalidoException;
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutenticadoException;
+import com.iwellness.admin_events_api.repositorios.IntervaloOcupado;
+import com.iwellness.admin_events_api.repositorios.ResumenEvento;
+import com.iwellness.admin_events_api.repositorios.VersionListaEventos;
 
 public interface IEventoServicio {
     
     List<Evento> getAllEventos() throws UsuarioNoAutenticadoException;
+    VersionListaEventos getVersionListaEventos();
+    List<ResumenEvento> getResumenesEventos();
+    List<Map<String, Object>> getCamposEventos(List<String> campos) throws CampoDesconocidoException;
+    PaginaEventos getPaginaEventos(OrdenEventos orden, String cursor, int limite) throws CursorInvalidoException;
+    PaginaEventos buscarEventos(String texto, Date desde, Date hasta, TipoEvento tipo, String cursor, int limite) throws CursorInvalidoException, RangoFechasInvalidoException;
+    void recorrerEventos(Consumer<Evento> consumidor);
+    PaginaEventos getEventosPorAsistente(String correo, String cursor, int limite) throws CursorInvalidoException;
+    List<Evento> getEventosEnRango(Date desde, Date hasta, TipoEvento tipo, Boolean activo) throws RangoFechasInvalidoException;
+    List<Ocurrencia> getOcurrencias(Date desde, Date hasta, TipoEvento tipo, Boolean activo) throws RangoFechasInvalidoException;
+    Evento editarOcurrencia(Long idEvento, ExcepcionOcurrencia cambios) throws OcurrenciaNoEncontradaException;
+    List<EstadisticaMensual> getEstadisticas(int mesDesde, int mesHasta, TipoEvento tipo) throws RangoFechasInvalidoException;
+    int reconstruirEstadisticas();
+    int enviarRecordatorios(List<ProgramadorRecordatorios.Recordatorio> recordatorios);
     Evento getEventoById(Long idEvento);
     Evento crearEvento(Evento evento);
     Evento editarEvento(Evento evento);
+    List<Evento> getConflictos(Evento evento);
+    List<IntervaloOcupado> getOcupacion(List<String> correos, Date desde, Date hasta) throws RangoFechasInvalidoException, LoteDemasiadoGrandeException;
+    Evento crearEventoSinConflictos(Evento evento) throws ConflictoHorarioException;
+    Evento editarEventoSinConflictos(Evento evento) throws ConflictoHorarioException;
     void eliminarEvento(Long idEvento);
-    Evento editarParcialEvento(Long idEvento, Map<String, Object> editados) throws FormatoFechaInvalidoException;
+    Evento editarParcialEvento(Long idEvento, Map<String, Object> editados) throws FormatoFechaInvalidoException, CampoNoEditableException;
+    List<ResultadoLote> crearEventos(List<Evento> eventos) throws LoteDemasiadoGrandeException;
+    List<ResultadoLote> editarEventos(List<Evento> eventos) throws LoteDemasiadoGrandeException;
+    List<ResultadoLote> cancelarEventos(List<Long> idsEventos) throws LoteDemasiadoGrandeException;
 }
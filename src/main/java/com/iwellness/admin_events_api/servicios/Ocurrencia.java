@@ -0,0 +1,20 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.Date;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+
+/**
+ * Una ocurrencia de un evento con sus valores efectivos. fechaOriginal es null si el evento no
+ * tiene recurrencia.
+ */
+public record Ocurrencia(Evento evento, Date fechaOriginal, Date fecha, Date fechaFin, String titulo, String descripcion) {
+
+    public static Ocurrencia unica(Evento evento) {
+        return new Ocurrencia(evento, null, evento.getFecha(), evento.getFechaFin(), evento.getTitulo(), evento.getDescripcion());
+    }
+
+    public Long duracion() {
+        return (fechaFin.getTime() - fecha.getTime()) / 60_000L;
+    }
+}
@@ -0,0 +1,7 @@
+package com.iwellness.admin_events_api.servicios;
+
+public enum OrdenEventos {
+
+    ID, FECHA;
+
+}
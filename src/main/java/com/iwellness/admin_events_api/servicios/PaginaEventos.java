@@ -0,0 +1,15 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.List;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PaginaEventos {
+    private List<Evento> eventos;
+    private String siguienteCursor;
+}
@@ -0,0 +1,183 @@
+package com.iwellness.admin_events_api.servicios;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+
+/**
+ * Cola en memoria de los recordatorios por enviar, ordenada por el momento de envio: la fecha de
+ * la ocurrencia menos la anticipacion. Solo contiene las ocurrencias que empiezan antes de un
+ * limite cercano; {@link com.iwellness.admin_events_api.email.DespachadorRecordatorios} la llena
+ * por ventanas desde el indice de fecha y las escrituras de eventos la corrigen al confirmarse.
+ *
+ * Lo ya enviado se guarda en la columna recordatorio_enviado_para, asi que la cola se puede perder
+ * (reinicio, error) y volver a cargar sin repetir recordatorios.
+ */
+@Component
+public class ProgramadorRecordatorios {
+
+    private static final Comparator<Recordatorio> ORDEN = Comparator.comparingLong(Recordatorio::momento)
+            .thenComparing(Recordatorio::idEvento)
+            .thenComparingLong(recordatorio -> recordatorio.fecha().getTime());
+
+    @Value("${recordatorios.habilitados:true}")
+    private boolean habilitados;
+
+    @Value("${recordatorios.anticipacion-horas:24}")
+    private long anticipacionHoras;
+
+    @Value("${recordatorios.horizonte-minutos:60}")
+    private long horizonteMinutos;
+
+    private final Object candado = new Object();
+
+    private final TreeSet<Recordatorio> cola = new TreeSet<>(ORDEN);
+
+    private final Map<Long, List<Recordatorio>> porEvento = new HashMap<>();
+
+    // Las ocurrencias que empiezan antes de este limite ya estan en la cola; null hasta la primera carga
+    private Date limite;
+
+    /**
+     * Recordatorio de una ocurrencia. version es la del evento al programarlo: si cambio, el
+     * recordatorio se descarta y el evento se vuelve a programar con su estado actual.
+     */
+    public record Recordatorio(long momento, Long idEvento, Long version, Date fecha, String titulo) {
+    }
+
+    /**
+     * Rango de fechas de ocurrencia [desde, hasta) que hay que cargar.
+     */
+    public record Ventana(Date desde, Date hasta) {
+    }
+
+    /**
+     * Ventana que falta cargar para cubrir el horizonte, o null si la cola esta al dia. La primera
+     * vez incluye todo lo que empieza antes de la anticipacion, por si el servicio estuvo detenido.
+     */
+    public Ventana ventanaPorCargar(long ahora) {
+        synchronized (candado) {
+            long horizonte = horizonteMinutos * 60_000L;
+            long hasta = ahora + anticipacionMs() + horizonte;
+            // Se carga la siguiente ventana cuando queda menos de medio horizonte cargado
+            if (!habilitados || (limite != null && limite.getTime() > hasta - horizonte / 2)) {
+                return null;
+            }
+            return new Ventana(limite == null ? new Date(ahora) : limite, new Date(hasta));
+        }
+    }
+
+    /**
+     * Agrega las ocurrencias de una ventana cargada desde la base y avanza el limite hasta su fin.
+     */
+    public void cargar(List<Ocurrencia> ocurrencias, Ventana ventana) {
+        long ahora = System.currentTimeMillis();
+        synchronized (candado) {
+            for (Ocurrencia ocurrencia : ocurrencias) {
+                if (pendiente(ocurrencia, ahora, ventana.hasta())) {
+                    agregar(recordatorio(ocurrencia));
+                }
+            }
+            limite = ventana.hasta();
+        }
+    }
+
+    /**
+     * Reemplaza los recordatorios de un evento por los de sus proximas ocurrencias. proximas debe
+     * traer todas las del evento que empiezan antes de {@link #limite()}.
+     */
+    public void programar(Evento evento, List<Ocurrencia> proximas) {
+        long ahora = System.currentTimeMillis();
+        synchronized (candado) {
+            quitarSinCandado(evento.getId());
+            if (limite == null || !Boolean.TRUE.equals(evento.getActivo())) {
+                return;
+            }
+            for (Ocurrencia ocurrencia : proximas) {
+                if (pendiente(ocurrencia, ahora, limite)) {
+                    agregar(recordatorio(ocurrencia));
+                }
+            }
+        }
+    }
+
+    public void quitar(Long idEvento) {
+        synchronized (candado) {
+            quitarSinCandado(idEvento);
+        }
+    }
+
+    /**
+     * Saca de la cola hasta maximo recordatorios cuyo momento ya llego, en orden.
+     */
+    public List<Recordatorio> extraerVencidos(long ahora, int maximo) {
+        List<Recordatorio> vencidos = new ArrayList<>();
+        synchronized (candado) {
+            while (vencidos.size() < maximo && !cola.isEmpty() && cola.first().momento() <= ahora) {
+                Recordatorio recordatorio = cola.pollFirst();
+                List<Recordatorio> delEvento = porEvento.get(recordatorio.idEvento());
+                delEvento.remove(recordatorio);
+                if (delEvento.isEmpty()) {
+                    porEvento.remove(recordatorio.idEvento());
+                }
+                vencidos.add(recordatorio);
+            }
+        }
+        return vencidos;
+    }
+
+    /**
+     * Vacia la cola para que la proxima pasada la vuelva a cargar desde la base.
+     */
+    public void reiniciar() {
+        synchronized (candado) {
+            cola.clear();
+            porEvento.clear();
+            limite = null;
+        }
+    }
+
+    public Date limite() {
+        synchronized (candado) {
+            return limite;
+        }
+    }
+
+    private boolean pendiente(Ocurrencia ocurrencia, long ahora, Date hasta) {
+        Date enviado = ocurrencia.evento().getRecordatorioEnviadoPara();
+        long fecha = ocurrencia.fecha().getTime();
+        return fecha > ahora && fecha < hasta.getTime() && (enviado == null || enviado.getTime() < fecha);
+    }
+
+    private Recordatorio recordatorio(Ocurrencia ocurrencia) {
+        Evento evento = ocurrencia.evento();
+        return new Recordatorio(ocurrencia.fecha().getTime() - anticipacionMs(), evento.getId(), evento.getVersion(),
+                ocurrencia.fecha(), ocurrencia.titulo());
+    }
+
+    private void agregar(Recordatorio recordatorio) {
+        if (cola.add(recordatorio)) {
+            porEvento.computeIfAbsent(recordatorio.idEvento(), id -> new ArrayList<>()).add(recordatorio);
+        }
+    }
+
+    private void quitarSinCandado(Long idEvento) {
+        List<Recordatorio> delEvento = porEvento.remove(idEvento);
+        if (delEvento != null) {
+            delEvento.forEach(cola::remove);
+        }
+    }
+
+    private long anticipacionMs() {
+        return anticipacionHoras * 3_600_000L;
+    }
+}
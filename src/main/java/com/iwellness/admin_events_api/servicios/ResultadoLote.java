@@ -0,0 +1,24 @@
+package com.iwellness.admin_events_api.servicios;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado de un elemento de una operacion por lotes; indice es su posicion en la peticion.
+ */
+@Data
+@AllArgsConstructor
+public class ResultadoLote {
+    private int indice;
+    private Long id;
+    private boolean exitoso;
+    private String error;
+
+    public static ResultadoLote exito(int indice, Long id) {
+        return new ResultadoLote(indice, id, true, null);
+    }
+
+    public static ResultadoLote error(int indice, Long id, String error) {
+        return new ResultadoLote(indice, id, false, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.iwellness.admin_events_api.servicios;
+
+/**
+ * Tipos de cambio que se publican en el feed de eventos; es el nombre del evento SSE.
+ */
+public enum TipoCambioEvento {
+    CREADO,
+    MODIFICADO,
+    CANCELADO,
+    ELIMINADO
+}
@@ -0,0 +1,31 @@
+package com.iwellness.admin_events_api.servicios;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Acciones que solo deben verse cuando la transaccion en curso confirma: cache, feed de cambios y
+ * cola de recordatorios.
+ */
+final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    /**
+     * Ejecuta la accion despues del commit de la transaccion en curso; si la transaccion se revierte
+     * no se ejecuta. Sin transaccion se ejecuta en el momento.
+     */
+    static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.iwellness.admin_events_api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.servicios.IBusquedaEventos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Arranca con un almacenamiento distinto de SQLite (perfil test, H2 en memoria), como el perfil
+ * postgres: DataSource de Spring Boot, ids desde secuencias y busqueda con like. Los eventos se
+ * guardan sin pasar por el servicio porque las estadisticas se escriben con on conflict, que H2
+ * no tiene.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminEventsApiApplicationH2Tests {
+
+	@Autowired
+	private IBusquedaEventos busquedaEventos;
+
+	@Autowired
+	private TransactionTemplate transaccion;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	void contextLoads() {
+	}
+
+	@Test
+	void laBusquedaConLikeUsaPrefijosDePalabras() {
+		Long enTitulo = guardar("Respiracion consciente", "Sesion guiada");
+		Long enDescripcion = guardar("Taller", "Ejercicios de respiracion");
+		guardar("Inspiracion", "Charla");
+
+		assertEquals(List.of(enTitulo, enDescripcion), busquedaEventos.buscarIds(List.of("respir"), null, null, null, 0, 10));
+		assertEquals(List.of(enDescripcion), busquedaEventos.buscarIds(List.of("respir", "ejer"), null, null, null, 0, 10));
+		assertTrue(busquedaEventos.buscarIds(List.of("piracion"), null, null, null, 0, 10).isEmpty());
+	}
+
+	private Long guardar(String titulo, String descripcion) {
+		Evento evento = new Evento(null, titulo, descripcion, new Date(), 60L, 0L, List.of(), TipoEvento.EVENTO, "#ffffff", true,
+				null, null, null, null, null);
+		transaccion.executeWithoutResult(estado -> entityManager.persist(evento));
+		return evento.getId();
+	}
+
+}
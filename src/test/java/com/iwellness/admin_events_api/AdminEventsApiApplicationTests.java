@@ -1,13 +1,114 @@
 package com.iwellness.admin_events_api;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.repositorios.EventoRepositorio;
+import com.iwellness.admin_events_api.servicios.IEventoServicio;
+
+/**
+ * Arranca sobre SQLite, el almacenamiento por defecto, en un archivo temporal. El archivo ya
+ * tiene el esquema, el indice FTS5 y sus triggers de un primer arranque, asi el contexto de la
+ * prueba es un reinicio.
+ */
 @SpringBootTest
 class AdminEventsApiApplicationTests {
 
+	@TempDir
+	static Path directorio;
+
+	@Autowired
+	private IEventoServicio eventoServicio;
+
+	@Autowired
+	private EventoRepositorio eventoRepositorio;
+
+	@Autowired
+	private TransactionTemplate transaccion;
+
+	@DynamicPropertySource
+	static void baseDeDatos(DynamicPropertyRegistry registro) {
+		registro.add("spring.datasource.url", AdminEventsApiApplicationTests::url);
+	}
+
+	@BeforeAll
+	static void primerArranque() {
+		new SpringApplicationBuilder(AdminEventsApiApplication.class)
+			.properties("spring.datasource.url=" + url(), "server.port=0")
+			.run()
+			.close();
+	}
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void creaBuscaYCuentaEventos() throws Exception {
+		Evento creado = eventoServicio.crearEvento(evento("Taller de respiracion", 5, 10, 30L, 7L));
+
+		List<Evento> encontrados = eventoServicio.buscarEventos("respir", null, null, null, null, 10).getEventos();
+		assertEquals(List.of(creado.getId()), encontrados.stream().map(Evento::getId).toList());
+		assertTrue(eventoServicio.buscarEventos("piracion", null, null, null, null, 10).getEventos().isEmpty());
+
+		// El segundo evento del mes suma a la fila existente y la cancelacion crea la de cancelados
+		Evento otro = eventoServicio.crearEvento(evento("Caminata", 5, 20, 20L, 5L));
+		eventoServicio.cancelarEventos(List.of(otro.getId()));
+		eventoServicio.crearEvento(evento("Meditacion", 5, 25, 45L, 3L));
+
+		List<EstadisticaMensual> estadisticas = eventoServicio.getEstadisticas(203105, 203105, TipoEvento.EVENTO);
+		EstadisticaMensual activos = estadisticas.stream().filter(EstadisticaMensual::getActivo).findFirst().orElseThrow();
+		EstadisticaMensual cancelados = estadisticas.stream().filter(fila -> !fila.getActivo()).findFirst().orElseThrow();
+		assertEquals(2, estadisticas.size());
+		assertEquals(List.of(2L, 10L, 75L), List.of(activos.getCantidad(), activos.getCosto(), activos.getDuracion()));
+		assertEquals(List.of(1L, 5L, 20L), List.of(cancelados.getCantidad(), cancelados.getCosto(), cancelados.getDuracion()));
+
+		// Lo sumado con los upserts es lo mismo que se obtiene recorriendo los eventos
+		eventoServicio.reconstruirEstadisticas();
+		assertEquals(estadisticas, eventoServicio.getEstadisticas(203105, 203105, TipoEvento.EVENTO));
+	}
+
+	@Test
+	void unaEdicionNoPisaLaMarcaDeRecordatorio() {
+		Evento creado = eventoServicio.crearEvento(evento("Yoga", 6, 12, 60L, 0L));
+		Date fecha = creado.getFecha();
+		transaccion.executeWithoutResult(estado -> {
+			Evento cargado = eventoRepositorio.findById(creado.getId()).orElseThrow();
+			// La marca se pone despues de cargar el evento, como si la escribiera otra instancia
+			assertEquals(1, eventoRepositorio.marcarRecordatorio(creado.getId(), fecha));
+			cargado.setTitulo("Yoga al aire libre");
+		});
+		Evento guardado = eventoRepositorio.findById(creado.getId()).orElseThrow();
+		assertEquals("Yoga al aire libre", guardado.getTitulo());
+		assertEquals(fecha.getTime(), guardado.getRecordatorioEnviadoPara().getTime());
+	}
+
+	private static String url() {
+		return "jdbc:sqlite:" + directorio.resolve("eventos.db");
+	}
+
+	private static Evento evento(String titulo, int mes, int dia, Long duracion, Long costo) {
+		Date fecha = Date.from(LocalDateTime.of(2031, mes, dia, 10, 0).atZone(ZoneId.systemDefault()).toInstant());
+		return new Evento(null, titulo, "Descripcion", fecha, duracion, costo, List.of(), TipoEvento.EVENTO, "#ffffff", true,
+				null, null, null, null, null);
+	}
+
 }
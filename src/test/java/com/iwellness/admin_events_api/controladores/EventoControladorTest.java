@@ -3,26 +3,44 @@ package com.iwellness.admin_events_api.controladores;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.*;
 
 import com.iwellness.admin_events_api.dto.EventoDTO;
+import com.iwellness.admin_events_api.dto.PaginaEventosDTO;
 import com.iwellness.admin_events_api.entidades.Evento;
 import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.exceptions.CampoDesconocidoException;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.ConflictoHorarioException;
+import com.iwellness.admin_events_api.exceptions.CursorInvalidoException;
 import com.iwellness.admin_events_api.exceptions.EventoNotFoundException;
 import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.LoteDemasiadoGrandeException;
+import com.iwellness.admin_events_api.exceptions.ParametrosIncompatiblesException;
+import com.iwellness.admin_events_api.exceptions.RangoFechasInvalidoException;
+import com.iwellness.admin_events_api.exceptions.RecurrenciaInvalidaException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutenticadoException;
 import com.iwellness.admin_events_api.exceptions.UsuarioNoAutorizadoPorRolException;
+import com.iwellness.admin_events_api.repositorios.VersionListaEventos;
 import com.iwellness.admin_events_api.seguridad.SeguridadEventos;
 import com.iwellness.admin_events_api.servicios.EventoServicioImpl;
+import com.iwellness.admin_events_api.servicios.OrdenEventos;
+import com.iwellness.admin_events_api.servicios.PaginaEventos;
+import com.iwellness.admin_events_api.servicios.ResultadoLote;
 
 @ExtendWith(MockitoExtension.class)
 public class EventoControladorTest {
@@ -39,49 +57,106 @@ public class EventoControladorTest {
     @Test
     public void getEventosTest() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException{
         //Mockito.doNothing().when(seguridadEventos).validarRol();
+        when(eventoServicioImpl.getVersionListaEventos()).thenReturn(new VersionListaEventos(2L, 2L, 2L));
         when(eventoServicioImpl.getAllEventos()).thenReturn(List.of(new Evento(), new Evento()));
-        assertEquals(2, eventoControlador.getAllEventos().size());
+        assertEquals(2, eventoControlador.getAllEventos(peticion(null)).size());
+    }
+
+    @Test
+    public void getEventosSinCambiosTest() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException{
+        when(eventoServicioImpl.getVersionListaEventos()).thenReturn(new VersionListaEventos(2L, 2L, 2L));
+        ServletWebRequest peticion = peticion("\"l-2-2-2\"");
+
+        assertNull(eventoControlador.getAllEventos(peticion));
+        assertEquals(304, peticion.getResponse().getStatus());
+        verify(eventoServicioImpl, never()).getAllEventos();
+    }
+
+    @Test
+    public void getCamposEventosTest() throws CampoDesconocidoException {
+        when(eventoServicioImpl.getVersionListaEventos()).thenReturn(new VersionListaEventos(1L, 0L, 1L));
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("id", 1L);
+        fila.put("fecha", new Date(0));
+        when(eventoServicioImpl.getCamposEventos(List.of("id", "fecha"))).thenReturn(List.of(fila));
+
+        List<Map<String, Object>> eventos = eventoControlador.getCamposEventos(" id,fecha,,id ", peticion(null));
+        assertEquals(List.of("id", "fecha"), List.copyOf(eventos.get(0).keySet()));
+        assertInstanceOf(String.class, eventos.get(0).get("fecha"));
+    }
+
+    @Test
+    public void getEventosEnRangoTest() throws FormatoFechaInvalidoException, RangoFechasInvalidoException {
+        when(eventoServicioImpl.getEventosEnRango(any(), any(), any(), any())).thenReturn(List.of(new Evento()));
+        assertEquals(1, eventoControlador.getEventosEnRango("2025-01-01T00:00:00.000Z", "2025-02-01T00:00:00.000Z", null, true).size());
+
+        assertThrows(FormatoFechaInvalidoException.class, () -> eventoControlador.getEventosEnRango("enero", "febrero", null, null));
+        assertThrows(ParametrosIncompatiblesException.class, () -> eventoControlador.getCamposEventosEnRango());
+    }
+
+    @Test
+    public void getPaginaEventosTest() throws CursorInvalidoException {
+        when(eventoServicioImpl.getPaginaEventos(OrdenEventos.FECHA, null, 2))
+                .thenReturn(new PaginaEventos(List.of(new Evento(), new Evento()), "cursor"));
+        PaginaEventosDTO pagina = eventoControlador.getPaginaEventos(OrdenEventos.FECHA, null, 2);
+        assertEquals(2, pagina.getEventos().size());
+        assertEquals("cursor", pagina.getSiguienteCursor());
+    }
+
+    @Test
+    public void getEventosPorAsistenteTest() throws CursorInvalidoException {
+        when(eventoServicioImpl.getEventosPorAsistente("email1", null, 50))
+                .thenReturn(new PaginaEventos(List.of(new Evento()), null));
+        PaginaEventosDTO pagina = eventoControlador.getEventosPorAsistente("email1", null, 50);
+        assertEquals(1, pagina.getEventos().size());
+        assertNull(pagina.getSiguienteCursor());
     }
 
     @Test
     public void getgetEventoByIdTest() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException, EventoNotFoundException {
         //Mockito.doNothing().when(seguridadEventos).validarRol();
         when(eventoServicioImpl.getEventoById(1L)).thenReturn(new Evento(1L,"titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true));
-        assertEquals(1L, eventoControlador.getEventoById(1L).getId());
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null));
+        ServletWebRequest peticion = peticion(null);
+        assertEquals(1L, eventoControlador.getEventoById(1L, peticion).getId());
+        assertEquals("\"e-1-0\"", peticion.getResponse().getHeader("ETag"));
+
+        ServletWebRequest condicional = peticion("\"e-1-0\"");
+        assertNull(eventoControlador.getEventoById(1L, condicional));
+        assertEquals(304, condicional.getResponse().getStatus());
 
-        assertThrows(EventoNotFoundException.class, () -> eventoControlador.getEventoById(2L));
+        assertThrows(EventoNotFoundException.class, () -> eventoControlador.getEventoById(2L, peticion(null)));
     }
 
     @Test
-    public void creaEventoTest() throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException {
+    public void creaEventoTest() throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException, RecurrenciaInvalidaException, ConflictoHorarioException {
         //Mockito.doNothing().when(seguridadEventos).validarRol();
         Evento eventoCrear = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true);
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
         when(eventoServicioImpl.crearEvento(any())).thenReturn(eventoCrear);
 
-        EventoDTO eventoCreado = eventoControlador.creaEvento(new EventoDTO());
+        EventoDTO eventoCreado = eventoControlador.creaEvento(new EventoDTO(), false);
         assertNotNull(eventoCreado);
         assertEquals(eventoCrear.getId(), eventoCreado.getId());
     }
 
     @Test
-    public void editarEventoTest() throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException {
+    public void editarEventoTest() throws UsuarioNoAutorizadoPorRolException, FormatoFechaInvalidoException, RecurrenciaInvalidaException, ConflictoHorarioException {
         //Mockito.doNothing().when(seguridadEventos).validarRol();
         Evento eventoEditar = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true);
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
         when(eventoServicioImpl.editarEvento(any())).thenReturn(eventoEditar);
 
-        EventoDTO eventoEditado = eventoControlador.editarEvento(new EventoDTO());
+        EventoDTO eventoEditado = eventoControlador.editarEvento(new EventoDTO(), false);
         assertNotNull(eventoEditado);
         assertEquals(eventoEditar.getId(), eventoEditado.getId());
     }
 
     @Test
-    public void editarParcialEventoTest() throws UsuarioNoAutorizadoPorRolException, EventoNotFoundException, FormatoFechaInvalidoException {
+    public void editarParcialEventoTest() throws UsuarioNoAutorizadoPorRolException, EventoNotFoundException, FormatoFechaInvalidoException, CampoNoEditableException {
         //Mockito.doNothing().when(seguridadEventos).validarRol();
         Evento evento = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", false);
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", false, 0L, null, null, null, null);
         Map<String, Object> atributosAeditar = new HashMap<>();
         when(eventoServicioImpl.editarParcialEvento(1L, atributosAeditar)).thenReturn(evento);
 
@@ -91,4 +166,34 @@ public class EventoControladorTest {
 
         assertThrows(EventoNotFoundException.class, () -> eventoControlador.editarParcialEvento(2L, new HashMap<>()));
     }
+
+    @Test
+    public void crearEventosTest() throws UsuarioNoAutorizadoPorRolException, LoteDemasiadoGrandeException {
+        EventoDTO valido = new EventoDTO(null, "titulo", "descripcion", "2025-01-01T10:00:00.000Z",
+                60L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", null, null);
+        EventoDTO fechaInvalida = new EventoDTO(null, "titulo", "descripcion", "mañana",
+                60L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", null, null);
+        EventoDTO recurrenciaInvalida = new EventoDTO(null, "titulo", "descripcion", "2025-01-01T10:00:00.000Z",
+                60L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", null, "FREQ=YEARLY");
+        when(eventoServicioImpl.crearEventos(any())).thenAnswer(invocacion -> {
+            List<Evento> eventos = invocacion.getArgument(0);
+            assertNotNull(eventos.get(0));
+            assertNull(eventos.get(1));
+            assertNull(eventos.get(2));
+            return List.of(ResultadoLote.exito(0, 1L), ResultadoLote.error(1, null, "Datos del evento invalidos"),
+                    ResultadoLote.error(2, null, "Datos del evento invalidos"));
+        });
+
+        List<ResultadoLote> resultados = eventoControlador.crearEventos(List.of(valido, fechaInvalida, recurrenciaInvalida));
+        assertTrue(resultados.get(0).isExitoso());
+        assertFalse(resultados.get(1).isExitoso());
+    }
+
+    private ServletWebRequest peticion(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/evento");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
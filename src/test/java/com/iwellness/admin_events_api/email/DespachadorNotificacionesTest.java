@@ -0,0 +1,156 @@
+package com.iwellness.admin_events_api.email;
+
+import com.iwellness.admin_events_api.entidades.EstadoNotificacion;
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
+import com.iwellness.admin_events_api.entidades.TipoNotificacion;
+import com.iwellness.admin_events_api.repositorios.NotificacionPendienteRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DespachadorNotificacionesTest {
+
+    @Mock
+    private NotificacionPendienteRepositorio notificacionRepositorio;
+
+    @Mock
+    private ServicioEmail servicioEmail;
+
+    @InjectMocks
+    private DespachadorNotificaciones despachador;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(despachador, "tamanoLote", 10);
+        ReflectionTestUtils.setField(despachador, "concurrencia", 2);
+        ReflectionTestUtils.setField(despachador, "intentosMaximos", 3);
+        ReflectionTestUtils.setField(despachador, "esperaInicialMs", 1000L);
+        ReflectionTestUtils.setField(despachador, "esperaMaximaMs", 60000L);
+        ReflectionTestUtils.setField(despachador, "reservaMs", 60000L);
+        despachador.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        despachador.detener();
+    }
+
+    @Test
+    void despacharEnviaYEliminaNotificaciones() {
+        NotificacionPendiente notificacion = notificacion(1L, 0);
+        reservarLote(notificacion);
+
+        despachador.despachar();
+
+        verify(servicioEmail).componer("email1", List.of(notificacion));
+        verify(notificacionRepositorio).deleteAllByIdInBatch(List.of(1L));
+        verify(notificacionRepositorio, never()).save(any());
+    }
+
+    @Test
+    void despacharUsaHilosVirtualesSiEstanHabilitados() {
+        despachador.detener();
+        ReflectionTestUtils.setField(despachador, "hilosVirtuales", true);
+        despachador.iniciar();
+        reservarLote(notificacion(1L, 0));
+        AtomicReference<Thread> hilo = new AtomicReference<>();
+        when(servicioEmail.enviar(any())).thenAnswer(invocacion -> {
+            hilo.set(Thread.currentThread());
+            return Map.of();
+        });
+
+        despachador.despachar();
+
+        assertTrue(hilo.get().isVirtual());
+        verify(notificacionRepositorio).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void despacharAgrupaPorDestinatarioYEnviaPorTramos() {
+        NotificacionPendiente primera = notificacion(1L, 0);
+        NotificacionPendiente segunda = notificacion(2L, 0);
+        NotificacionPendiente otroDestinatario = notificacion(3L, 0);
+        otroDestinatario.setDestinatario("email2");
+        reservarLote(primera, segunda, otroDestinatario);
+
+        despachador.despachar();
+
+        verify(servicioEmail).componer("email1", List.of(primera, segunda));
+        verify(servicioEmail).componer("email2", List.of(otroDestinatario));
+        // Dos mensajes con concurrencia 2: un tramo de un mensaje por conexion
+        verify(servicioEmail, times(2)).enviar(any());
+        verify(notificacionRepositorio).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void despacharReprogramaFallos() {
+        NotificacionPendiente notificacion = notificacion(1L, 0);
+        reservarLote(notificacion);
+        when(servicioEmail.enviar(any())).thenReturn(Map.of(0, new MailSendException("smtp caido")));
+
+        long antes = System.currentTimeMillis();
+        despachador.despachar();
+
+        verify(notificacionRepositorio).save(notificacion);
+        assertEquals(EstadoNotificacion.PENDIENTE, notificacion.getEstado());
+        assertEquals(1, notificacion.getIntentos());
+        assertNull(notificacion.getReserva());
+        assertTrue(notificacion.getProximoIntento().getTime() >= antes + 1000);
+    }
+
+    @Test
+    void despacharDescartaTrasIntentosMaximos() {
+        NotificacionPendiente notificacion = notificacion(1L, 2);
+        reservarLote(notificacion);
+        doThrow(new MailSendException("smtp caido")).when(servicioEmail).enviar(any());
+
+        despachador.despachar();
+
+        assertEquals(EstadoNotificacion.FALLIDA, notificacion.getEstado());
+        verify(notificacionRepositorio).save(notificacion);
+    }
+
+    @Test
+    void calcularEsperaCreceHastaElMaximo() {
+        assertTrue(despachador.calcularEspera(1) >= 1000 && despachador.calcularEspera(1) <= 1200);
+        assertTrue(despachador.calcularEspera(3) >= 4000 && despachador.calcularEspera(3) <= 4800);
+        assertTrue(despachador.calcularEspera(30) <= 72000);
+    }
+
+    private void reservarLote(NotificacionPendiente... notificaciones) {
+        List<Long> ids = Arrays.stream(notificaciones).map(NotificacionPendiente::getId).toList();
+        when(notificacionRepositorio.findIdsListos(any(), any(), any())).thenReturn(ids);
+        when(notificacionRepositorio.reservar(eq(ids), any(), anyString(), any(), any())).thenReturn(ids.size());
+        when(notificacionRepositorio.findByReservaOrderByIdAsc(anyString())).thenReturn(List.of(notificaciones));
+        when(servicioEmail.componer(anyString(), any())).thenReturn(new SimpleMailMessage());
+    }
+
+    private NotificacionPendiente notificacion(Long id, int intentos) {
+        return new NotificacionPendiente(id, 10L, "email1", "titulo", TipoNotificacion.MODIFICACION,
+                EstadoNotificacion.EN_PROCESO, intentos, new Date(), "reserva", null, new Date(), null);
+    }
+}
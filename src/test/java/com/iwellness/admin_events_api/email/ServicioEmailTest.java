@@ -0,0 +1,82 @@
+package com.iwellness.admin_events_api.email;
+
+import com.iwellness.admin_events_api.entidades.EstadoNotificacion;
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
+import com.iwellness.admin_events_api.entidades.TipoNotificacion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioEmailTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @InjectMocks
+    private ServicioEmail servicioEmail;
+
+    @Test
+    void componerUneLasModificacionesDeUnEvento() {
+        SimpleMailMessage mensaje = servicioEmail.componer("email1", List.of(
+                notificacion(10L, "titulo", TipoNotificacion.MODIFICACION),
+                notificacion(10L, "titulo nuevo", TipoNotificacion.MODIFICACION)));
+        assertEquals("Evento Modificado", mensaje.getSubject());
+        assertTrue(mensaje.getText().contains("titulo nuevo"));
+        assertArrayEquals(new String[] {"email1"}, mensaje.getTo());
+    }
+
+    @Test
+    void componerResumeVariosEventosYPrefiereLaCancelacion() {
+        SimpleMailMessage mensaje = servicioEmail.componer("email1", List.of(
+                notificacion(10L, "yoga", TipoNotificacion.CANCELACION),
+                notificacion(11L, "taller", TipoNotificacion.MODIFICACION),
+                notificacion(10L, "yoga", TipoNotificacion.MODIFICACION)));
+        assertEquals("Cambios en sus Eventos", mensaje.getSubject());
+        assertTrue(mensaje.getText().contains("- yoga: cancelado\n- taller: modificado\n"));
+    }
+
+    @Test
+    void componerIncluyeLaFechaDeLosRecordatorios() {
+        NotificacionPendiente recordatorio = notificacion(10L, "yoga", TipoNotificacion.RECORDATORIO);
+        recordatorio.setFechaEvento(new Date(0));
+        SimpleMailMessage mensaje = servicioEmail.componer("email1", List.of(
+                notificacion(10L, "yoga", TipoNotificacion.MODIFICACION), recordatorio));
+        assertEquals("Recordatorio de Evento", mensaje.getSubject());
+        assertTrue(mensaje.getText().contains("yoga comienza el "));
+    }
+
+    @Test
+    void enviarUsaUnaSolaLlamadaYDevuelveLosFallidos() {
+        SimpleMailMessage primero = new SimpleMailMessage();
+        primero.setTo("email1");
+        SimpleMailMessage segundo = new SimpleMailMessage();
+        segundo.setTo("email2");
+        MailSendException error = new MailSendException("rechazado");
+        doThrow(new MailSendException(Map.of(segundo, error))).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        Map<Integer, Exception> fallidos = servicioEmail.enviar(List.of(primero, segundo));
+
+        verify(mailSender).send(primero, segundo);
+        assertEquals(Map.of(1, error), fallidos);
+    }
+
+    private NotificacionPendiente notificacion(Long idEvento, String titulo, TipoNotificacion tipo) {
+        return new NotificacionPendiente(null, idEvento, "email1", titulo, tipo, EstadoNotificacion.EN_PROCESO, 0,
+                new Date(), "reserva", null, new Date(), null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.iwellness.admin_events_api.entidades;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ReglaRecurrenciaTest {
+
+    private static final Date INICIO = fecha(2025, 1, 1, 9);
+
+    private static final Date FIN = fecha(2030, 1, 1, 0);
+
+    private static final List<String> REGLAS = List.of(
+            "FREQ=DAILY;INTERVAL=3;COUNT=50",
+            "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR;COUNT=40",
+            "FREQ=WEEKLY;BYDAY=WE,SU;UNTIL=20260315T000000Z",
+            "FREQ=WEEKLY;INTERVAL=2;COUNT=30",
+            "FREQ=MONTHLY;INTERVAL=2;UNTIL=20270101",
+            "FREQ=MONTHLY;COUNT=7");
+
+    @Test
+    void unRangoDaLoMismoQueRecorrerLaSerieDesdeElInicio() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (String texto : REGLAS) {
+            ReglaRecurrencia regla = ReglaRecurrencia.parsear(texto);
+            List<Date> todas = regla.ocurrencias(INICIO, INICIO, FIN);
+            for (int i = 0; i < 200; i++) {
+                Date desde = new Date(random.nextLong(INICIO.getTime() - 86_400_000L, FIN.getTime()));
+                Date hasta = new Date(desde.getTime() + random.nextLong(1, 90L * 86_400_000L));
+                List<Date> esperadas = todas.stream().filter(fecha -> !fecha.before(desde) && fecha.before(hasta)).toList();
+                assertEquals(esperadas, regla.ocurrencias(INICIO, desde, hasta), texto);
+            }
+        }
+    }
+
+    @Test
+    void laUltimaOcurrenciaEsLaUltimaDeLaSerie() {
+        for (String texto : REGLAS) {
+            ReglaRecurrencia regla = ReglaRecurrencia.parsear(texto);
+            List<Date> todas = regla.ocurrencias(INICIO, INICIO, FIN);
+            assertEquals(todas.get(todas.size() - 1), regla.ultimaOcurrencia(INICIO), texto);
+        }
+        assertEquals(40, ReglaRecurrencia.parsear(REGLAS.get(1)).ocurrencias(INICIO, INICIO, FIN).size());
+        assertNull(ReglaRecurrencia.parsear("FREQ=DAILY").ultimaOcurrencia(INICIO));
+    }
+
+    @Test
+    void semanalSinDiasRepiteElDiaDeLaSemanaDelInicio() {
+        // 2026-03-04 es miercoles
+        Date inicio = fecha(2026, 3, 4, 10);
+        ReglaRecurrencia regla = ReglaRecurrencia.parsear("FREQ=WEEKLY;COUNT=3");
+        assertEquals(List.of(inicio, fecha(2026, 3, 11, 10), fecha(2026, 3, 18, 10)), regla.ocurrencias(inicio, INICIO, FIN));
+        assertEquals(fecha(2026, 3, 18, 10), regla.ultimaOcurrencia(inicio));
+        assertTrue(regla.esOcurrencia(inicio, inicio));
+        assertFalse(regla.esOcurrencia(inicio, fecha(2026, 3, 9, 10)));
+    }
+
+    @Test
+    void mensualUsaElUltimoDiaDeLosMesesMasCortos() {
+        List<Date> ocurrencias = ReglaRecurrencia.parsear("FREQ=MONTHLY;COUNT=4").ocurrencias(fecha(2025, 1, 31, 9), INICIO, FIN);
+        assertEquals(List.of(fecha(2025, 1, 31, 9), fecha(2025, 2, 28, 9), fecha(2025, 3, 31, 9), fecha(2025, 4, 30, 9)), ocurrencias);
+    }
+
+    @Test
+    void rechazaReglasFueraDelSubconjunto() {
+        for (String texto : List.of("FREQ=YEARLY", "INTERVAL=2", "FREQ=DAILY;COUNT=3;UNTIL=20250101", "FREQ=DAILY;BYDAY=MO",
+                "FREQ=WEEKLY;BYDAY=XX", "FREQ=DAILY;INTERVAL=0", "FREQ=DAILY;BYMONTH=1", "FREQ=DAILY;UNTIL=ayer")) {
+            assertThrows(IllegalArgumentException.class, () -> ReglaRecurrencia.parsear(texto), texto);
+        }
+        // 2025-01-01 es miercoles
+        assertThrows(IllegalArgumentException.class, () -> ReglaRecurrencia.normalizar("FREQ=WEEKLY;BYDAY=MO", INICIO));
+        assertEquals("FREQ=WEEKLY;BYDAY=WE", ReglaRecurrencia.normalizar("RRULE:FREQ=WEEKLY;BYDAY=WE", INICIO));
+    }
+
+    private static Date fecha(int anio, int mes, int dia, int hora) {
+        return Date.from(LocalDateTime.of(anio, mes, dia, hora, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
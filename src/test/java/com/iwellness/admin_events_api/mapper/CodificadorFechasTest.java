@@ -0,0 +1,74 @@
+package com.iwellness.admin_events_api.mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+
+class CodificadorFechasTest {
+
+    private static final String PATRON = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    // 1970-01-01 a 2100-01-01
+    private static final long MAXIMO_MILIS = 4_102_444_800_000L;
+
+    @Test
+    void formateaIgualQueSimpleDateFormat() throws Exception {
+        SimpleDateFormat referencia = new SimpleDateFormat(PATRON);
+        Date fecha = referencia.parse("2025-03-07T09:05:03.042Z");
+        assertEquals("2025-03-07T09:05:03.042Z", CodificadorFechas.formatear(fecha));
+        assertEquals(fecha, CodificadorFechas.parsear("2025-03-07T09:05:03.042Z"));
+    }
+
+    @Test
+    void rechazaFormatosInvalidos() {
+        for (String texto : List.of("", "2025-03-07", "2025-03-07T09:05:03Z", "2025-03-07T09:05:03.042",
+                "2025-13-07T09:05:03.042Z", "2025-02-30T09:05:03.042Z", "2025-03-07 09:05:03.042Z",
+                "2025-03-07T09:05:03.04xZ", "2025-03-07T09:05:03.042Zz")) {
+            assertThrows(FormatoFechaInvalidoException.class, () -> CodificadorFechas.parsear(texto), texto);
+        }
+        assertThrows(FormatoFechaInvalidoException.class, () -> CodificadorFechas.parsear(null));
+    }
+
+    @Test
+    void esCorrectoConVariosHilos() throws Exception {
+        int hilos = 8;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Callable<Integer>> tareas = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                tareas.add(() -> {
+                    SimpleDateFormat referencia = new SimpleDateFormat(PATRON);
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    int verificadas = 0;
+                    for (int j = 0; j < 20_000; j++) {
+                        Date fecha = new Date(aleatorio.nextLong(MAXIMO_MILIS));
+                        String texto = CodificadorFechas.formatear(fecha);
+                        assertEquals(referencia.format(fecha), texto);
+                        assertEquals(texto, CodificadorFechas.formatear(CodificadorFechas.parsear(texto)));
+                        verificadas++;
+                    }
+                    return verificadas;
+                });
+            }
+            int total = 0;
+            for (Future<Integer> resultado : ejecutor.invokeAll(tareas)) {
+                total += resultado.get();
+            }
+            assertEquals(hilos * 20_000, total);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.iwellness.admin_events_api.seguridad;
+
+import com.iwellness.admin_events_api.clientes.UsuarioFeignCliente;
+import com.iwellness.admin_events_api.dto.RolDTO;
+import com.iwellness.admin_events_api.dto.UsuarioDTO;
+import com.iwellness.admin_events_api.exceptions.SeguridadNoDisponibleException;
+import com.iwellness.admin_events_api.exceptions.UsuarioNoAutenticadoException;
+import com.iwellness.admin_events_api.exceptions.UsuarioNoAutorizadoPorRolException;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeguridadEventosTest {
+
+    @Mock
+    private UsuarioFeignCliente usuarioFeignCliente;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @InjectMocks
+    private SeguridadEventos seguridadEventos;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seguridadEventos, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(seguridadEventos, "ttlSegundos", 60L);
+        ReflectionTestUtils.setField(seguridadEventos, "tamanoMaximo", 100L);
+        ReflectionTestUtils.setField(seguridadEventos, "ventanaCircuito", 4);
+        ReflectionTestUtils.setField(seguridadEventos, "llamadasMinimas", 4);
+        ReflectionTestUtils.setField(seguridadEventos, "umbralFallos", 50f);
+        ReflectionTestUtils.setField(seguridadEventos, "llamadaLentaMs", 1000L);
+        ReflectionTestUtils.setField(seguridadEventos, "abiertoMs", 60000L);
+        ReflectionTestUtils.setField(seguridadEventos, "concurrenciaMaxima", 1);
+        ReflectionTestUtils.setField(seguridadEventos, "esperaConcurrenciaMs", 0L);
+        seguridadEventos.iniciarCache();
+    }
+
+    @Test
+    void validarRolUsaCachePorToken() throws UsuarioNoAutenticadoException, UsuarioNoAutorizadoPorRolException, SeguridadNoDisponibleException {
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(usuarioFeignCliente.getUsuario()).thenReturn(usuario("Admin"));
+
+        seguridadEventos.validarRol();
+        seguridadEventos.validarRol();
+
+        verify(usuarioFeignCliente, times(1)).getUsuario();
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void validarRolRechazaRolNoAutorizado() {
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(usuarioFeignCliente.getUsuario()).thenReturn(usuario("Turista"));
+
+        assertThrows(UsuarioNoAutorizadoPorRolException.class, () -> seguridadEventos.validarRol());
+    }
+
+    @Test
+    void validarRolTraduceLasRespuestasDeSeguridad() {
+        Request peticion = Request.create(Request.HttpMethod.GET, "/auth/info", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(usuarioFeignCliente.getUsuario())
+                .thenThrow(new UndeclaredThrowableException(new UsuarioNoAutenticadoException()))
+                .thenThrow(new FeignException.ServiceUnavailable("seguridad-ms", peticion, null, null))
+                .thenThrow(new FeignException.NotFound("seguridad-ms", peticion, null, null));
+
+        assertThrows(UsuarioNoAutenticadoException.class, () -> seguridadEventos.validarRol());
+        assertThrows(SeguridadNoDisponibleException.class, () -> seguridadEventos.validarRol());
+        assertThrows(FeignException.NotFound.class, () -> seguridadEventos.validarRol());
+    }
+
+    @Test
+    void validarRolNoGuardaErrores() {
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(usuarioFeignCliente.getUsuario()).thenThrow(new IllegalStateException("seguridad-ms caido")).thenReturn(usuario("Admin"));
+
+        assertThrows(IllegalStateException.class, () -> seguridadEventos.validarRol());
+        assertDoesNotThrow(() -> seguridadEventos.validarRol());
+        verify(usuarioFeignCliente, times(2)).getUsuario();
+    }
+
+    @Test
+    void validarRolAgrupaConsultasConcurrentes() throws Exception {
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(usuarioFeignCliente.getUsuario()).thenAnswer(invocacion -> {
+            consultaIniciada.countDown();
+            liberarConsulta.await(5, TimeUnit.SECONDS);
+            return usuario("Admin");
+        });
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            resultados.add(ejecutor.submit(() -> { seguridadEventos.validarRol(); return null; }));
+            assertTrue(consultaIniciada.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                resultados.add(ejecutor.submit(() -> { seguridadEventos.validarRol(); return null; }));
+            }
+            liberarConsulta.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        verify(usuarioFeignCliente, times(1)).getUsuario();
+    }
+
+    @Test
+    void validarRolAbreElCircuitoCuandoSeguridadNoResponde() {
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        when(usuarioFeignCliente.getUsuario()).thenThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.GET,
+                (Long) null, Request.create(Request.HttpMethod.GET, "http://localhost/auth/info", Map.of(), null, StandardCharsets.UTF_8)));
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(SeguridadNoDisponibleException.class, () -> seguridadEventos.validarRol());
+        }
+
+        verify(usuarioFeignCliente, times(4)).getUsuario();
+        assertEquals(2.0, meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls").counter().count());
+    }
+
+    @Test
+    void validarRolRechazaConsultasQueExcedenLaConcurrencia() throws Exception {
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        when(request.getHeader("Authorization")).thenReturn("Bearer uno", "Bearer dos");
+        when(usuarioFeignCliente.getUsuario()).thenAnswer(invocacion -> {
+            consultaIniciada.countDown();
+            liberarConsulta.await(5, TimeUnit.SECONDS);
+            return usuario("Admin");
+        });
+
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> primera = ejecutor.submit(() -> { seguridadEventos.validarRol(); return null; });
+            assertTrue(consultaIniciada.await(5, TimeUnit.SECONDS));
+            assertThrows(SeguridadNoDisponibleException.class, () -> seguridadEventos.validarRol());
+            liberarConsulta.countDown();
+            primera.get(5, TimeUnit.SECONDS);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        verify(usuarioFeignCliente, times(1)).getUsuario();
+    }
+
+    private UsuarioDTO usuario(String rol) {
+        return new UsuarioDTO(1L, "nombre", null, "correo", new RolDTO(rol));
+    }
+}
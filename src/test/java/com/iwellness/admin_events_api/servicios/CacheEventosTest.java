@@ -0,0 +1,79 @@
+package com.iwellness.admin_events_api.servicios;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheEventosTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CacheEventos cacheEventos;
+
+    @BeforeEach
+    void setUp() {
+        cacheEventos = new CacheEventos();
+        ReflectionTestUtils.setField(cacheEventos, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cacheEventos, "habilitada", true);
+        ReflectionTestUtils.setField(cacheEventos, "tamanoMaximo", 100L);
+        ReflectionTestUtils.setField(cacheEventos, "ttlSegundos", 60L);
+        cacheEventos.iniciarCache();
+    }
+
+    @Test
+    void obtenerGuardaUnaCopiaHastaInvalidar() {
+        AtomicInteger cargas = new AtomicInteger();
+        Evento original = evento(1L);
+
+        Evento primero = cacheEventos.obtener(1L, id -> { cargas.incrementAndGet(); return original; });
+        Evento segundo = cacheEventos.obtener(1L, id -> { cargas.incrementAndGet(); return original; });
+        assertEquals(1, cargas.get());
+        assertNotSame(original, primero);
+        assertSame(primero, segundo);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+
+        cacheEventos.invalidar(List.of(1L));
+        cacheEventos.obtener(1L, id -> { cargas.incrementAndGet(); return original; });
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void cargaConcurrenteConInvalidacionNoSeGuarda() {
+        // La invalidacion llega mientras se lee la base: el valor leido puede ser anterior al commit
+        cacheEventos.obtener(1L, id -> {
+            cacheEventos.invalidar(List.of(1L));
+            return evento(1L);
+        });
+        AtomicInteger cargas = new AtomicInteger();
+        cacheEventos.obtener(1L, id -> { cargas.incrementAndGet(); return evento(1L); });
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void obtenerTodosCargaSoloLosFaltantesEnOrden() {
+        cacheEventos.obtener(2L, id -> evento(2L));
+        List<List<Long>> pedidos = new ArrayList<>();
+
+        List<Evento> eventos = cacheEventos.obtenerTodos(() -> List.of(1L, 2L, 3L), faltantes -> {
+            pedidos.add(faltantes);
+            return List.of(evento(3L), evento(1L));
+        });
+        assertEquals(List.of(1L, 2L, 3L), eventos.stream().map(Evento::getId).toList());
+        assertEquals(List.of(List.of(1L, 3L)), pedidos);
+    }
+
+    private Evento evento(Long id) {
+        return new Evento(id, "titulo", "descripcion", new Date(), 60L, 1000L,
+                List.of("email1"), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.iwellness.admin_events_api.servicios;
+
+import com.iwellness.admin_events_api.entidades.EstadisticaMensual;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstadisticasEventosTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @InjectMocks
+    private EstadisticasEventos estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void registrarJuntaLasDiferenciasPorFila() {
+        Evento primero = evento(1L, 1000L, 60L);
+        Evento segundo = evento(2L, 500L, 30L);
+        estadisticas.registrar(null, EstadisticasEventos.aporte(primero));
+        estadisticas.registrar(null, EstadisticasEventos.aporte(segundo));
+        EstadisticasEventos.Aporte anterior = EstadisticasEventos.aporte(segundo);
+        segundo.setActivo(false);
+        estadisticas.registrar(anterior, EstadisticasEventos.aporte(segundo));
+
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        confirmar();
+
+        // Un upsert por fila, en orden de id: primero la de cancelados y despues la de activos
+        ArgumentCaptor<String> sentencia = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, times(2)).createNativeQuery(sentencia.capture());
+        assertTrue(sentencia.getValue().contains("on conflict (id) do update"));
+        verify(query, times(2)).executeUpdate();
+        InOrder orden = inOrder(query);
+        orden.verify(query).setParameter("id", EstadisticaMensual.idDe(202503, TipoEvento.EVENTO, false));
+        orden.verify(query).setParameter("costo", 500L);
+        orden.verify(query).setParameter("id", EstadisticaMensual.idDe(202503, TipoEvento.EVENTO, true));
+        orden.verify(query).setParameter("costo", 1000L);
+        verify(query, times(2)).setParameter("cantidad", 1L);
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void registrarIgnoraCambiosQueNoAfectanLosTotales() {
+        Evento evento = evento(1L, 1000L, 60L);
+        estadisticas.registrar(EstadisticasEventos.aporte(evento), EstadisticasEventos.aporte(evento));
+        estadisticas.registrar(null, EstadisticasEventos.aporte(new Evento()));
+        confirmar();
+        verify(entityManager, never()).createNativeQuery(anyString());
+        verify(entityManager, never()).persist(any());
+    }
+
+    private void confirmar() {
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacion.beforeCommit(false);
+            sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private static Evento evento(Long id, Long costo, Long duracion) {
+        Date fecha = Date.from(LocalDateTime.of(2025, 3, 15, 10, 0).atZone(ZoneId.systemDefault()).toInstant());
+        return new Evento(id, "titulo", "descripcion", fecha, duracion, costo, null, TipoEvento.EVENTO, "rojo", true,
+                0L, null, null, null, null);
+    }
+}
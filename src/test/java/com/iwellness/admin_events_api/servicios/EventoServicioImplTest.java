@@ -1,19 +1,40 @@
 package com.iwellness.admin_events_api.servicios;
 
 import com.iwellness.admin_events_api.dto.EventoDTO;
-import com.iwellness.admin_events_api.email.ServicioEmail;
 import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.ExcepcionOcurrencia;
+import com.iwellness.admin_events_api.entidades.NotificacionPendiente;
 import com.iwellness.admin_events_api.entidades.TipoEvento;
+import com.iwellness.admin_events_api.entidades.TipoNotificacion;
+import com.iwellness.admin_events_api.exceptions.CampoDesconocidoException;
+import com.iwellness.admin_events_api.exceptions.CampoNoEditableException;
+import com.iwellness.admin_events_api.exceptions.ConflictoHorarioException;
+import com.iwellness.admin_events_api.exceptions.CursorInvalidoException;
 import com.iwellness.admin_events_api.exceptions.EventoNotFoundException;
 import com.iwellness.admin_events_api.exceptions.FormatoFechaInvalidoException;
+import com.iwellness.admin_events_api.exceptions.LoteDemasiadoGrandeException;
+import com.iwellness.admin_events_api.exceptions.OcurrenciaNoEncontradaException;
+import com.iwellness.admin_events_api.exceptions.RangoFechasInvalidoException;
+import com.iwellness.admin_events_api.repositorios.EstadisticaMensualRepositorio;
 import com.iwellness.admin_events_api.repositorios.EventoRepositorio;
+import com.iwellness.admin_events_api.repositorios.ExcepcionOcurrenciaRepositorio;
+import com.iwellness.admin_events_api.repositorios.IntervaloOcupado;
+import com.iwellness.admin_events_api.repositorios.NotificacionPendienteRepositorio;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -21,17 +42,47 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class EventoServicioImplTest {
 
     @Mock
-    private ServicioEmail servicioEmail;
+    private NotificacionPendienteRepositorio notificacionRepositorio;
 
     @Mock
     private EventoRepositorio eventoRepositorio;
 
+    @Mock
+    private ExcepcionOcurrenciaRepositorio excepcionRepositorio;
+
+    @Mock
+    private EntityManager entityManager;
+
+    // Sin iniciar la cache queda deshabilitada y las lecturas van directo al repositorio
+    @Spy
+    private CacheEventos cacheEventos = new CacheEventos();
+
+    @Mock
+    private FeedCambiosEventos feedCambios;
+
+    @Mock
+    private IBusquedaEventos busquedaEventos;
+
+    @Mock
+    private EstadisticasEventos estadisticas;
+
+    @Mock
+    private EstadisticaMensualRepositorio estadisticaRepositorio;
+
+    @Mock
+    private ProgramadorRecordatorios programadorRecordatorios;
+
     @InjectMocks
     private EventoServicioImpl eventoServicio;
 
@@ -41,10 +92,79 @@ class EventoServicioImplTest {
         assertEquals(2, eventoServicio.getAllEventos().size());
     }
 
+    @Test
+    void getPaginaEventosPorId() throws CursorInvalidoException {
+        when(eventoRepositorio.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(List.of(eventoConId(1L), eventoConId(2L), eventoConId(3L)));
+        PaginaEventos primera = eventoServicio.getPaginaEventos(OrdenEventos.ID, null, 2);
+        assertEquals(2, primera.getEventos().size());
+        assertNotNull(primera.getSiguienteCursor());
+
+        when(eventoRepositorio.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(eventoConId(3L)));
+        PaginaEventos segunda = eventoServicio.getPaginaEventos(OrdenEventos.ID, primera.getSiguienteCursor(), 2);
+        assertEquals(1, segunda.getEventos().size());
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    void getPaginaEventosPorFecha() throws CursorInvalidoException {
+        Evento primero = eventoConId(5L);
+        Evento segundo = eventoConId(2L);
+        when(eventoRepositorio.findByFechaNotNullOrderByFechaAscIdAsc(Limit.of(2))).thenReturn(List.of(primero, segundo));
+        PaginaEventos pagina = eventoServicio.getPaginaEventos(OrdenEventos.FECHA, null, 1);
+
+        when(eventoRepositorio.findSiguientesPorFecha(primero.getFecha(), 5L, Limit.of(2))).thenReturn(List.of(segundo));
+        assertEquals(2L, eventoServicio.getPaginaEventos(OrdenEventos.FECHA, pagina.getSiguienteCursor(), 1).getEventos().get(0).getId());
+    }
+
+    @Test
+    void getPaginaEventosCursorInvalido() throws CursorInvalidoException {
+        PaginaEventos pagina = paginaPorIdConCursor();
+        assertThrows(CursorInvalidoException.class, () -> eventoServicio.getPaginaEventos(OrdenEventos.ID, "no-es-un-cursor", 10));
+        assertThrows(CursorInvalidoException.class, () -> eventoServicio.getPaginaEventos(OrdenEventos.FECHA, pagina.getSiguienteCursor(), 10));
+    }
+
+    @Test
+    void getEventosPorAsistente() throws CursorInvalidoException {
+        when(eventoRepositorio.findPorAsistente("email1", 0L, Limit.of(2))).thenReturn(List.of(eventoConId(3L), eventoConId(8L)));
+        PaginaEventos primera = eventoServicio.getEventosPorAsistente("email1", null, 1);
+        assertEquals(3L, primera.getEventos().get(0).getId());
+
+        when(eventoRepositorio.findPorAsistente("email1", 3L, Limit.of(2))).thenReturn(List.of(eventoConId(8L)));
+        PaginaEventos segunda = eventoServicio.getEventosPorAsistente("email1", primera.getSiguienteCursor(), 1);
+        assertEquals(8L, segunda.getEventos().get(0).getId());
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    void recorrerEventosPorLotes() {
+        List<Evento> lote = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            lote.add(eventoConId(id));
+        }
+        when(eventoRepositorio.findAllByOrderByIdAsc(any())).thenReturn(lote);
+        when(eventoRepositorio.findByIdGreaterThanOrderByIdAsc(eq(200L), any())).thenReturn(List.of(eventoConId(201L)));
+        when(eventoRepositorio.findByIdGreaterThanOrderByIdAsc(eq(201L), any())).thenReturn(List.of());
+
+        List<Long> recorridos = new ArrayList<>();
+        eventoServicio.recorrerEventos(evento -> recorridos.add(evento.getId()));
+        assertEquals(201, recorridos.size());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void getEventosEnRango() throws RangoFechasInvalidoException {
+        Date desde = new Date(0);
+        Date hasta = new Date(10_000);
+        when(eventoRepositorio.findEnRangoDeFechas(desde, hasta, TipoEvento.REUNION, true)).thenReturn(List.of(eventoConId(1L)));
+        assertEquals(1, eventoServicio.getEventosEnRango(desde, hasta, TipoEvento.REUNION, true).size());
+
+        assertThrows(RangoFechasInvalidoException.class, () -> eventoServicio.getEventosEnRango(hasta, desde, null, null));
+    }
+
     @Test
     void getEventoById() {
         when(eventoRepositorio.findById(1L)).thenReturn(Optional.of(new Evento(1L,"titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true)));
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null)));
         assertEquals(1L, eventoServicio.getEventoById(1L).getId());
 
         assertNull(eventoServicio.getEventoById(2L));
@@ -53,7 +173,7 @@ class EventoServicioImplTest {
     @Test
     void crearEvento() {
         Evento eventoCrear = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true);
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
         when(eventoRepositorio.save(any())).thenReturn(eventoCrear);
 
         Evento eventoCreado = eventoServicio.crearEvento(new Evento());
@@ -64,7 +184,7 @@ class EventoServicioImplTest {
     @Test
     void editarEvento() {
         Evento eventoEditar = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true);
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
         when(eventoRepositorio.save(any())).thenReturn(eventoEditar);
 
         Evento eventoEditado = eventoServicio.editarEvento(new Evento());
@@ -73,34 +193,310 @@ class EventoServicioImplTest {
     }
 
     @Test
-    void editarParcialEventoCancelarTest() throws FormatoFechaInvalidoException {
+    void buscarEventosConservaElOrdenDeRelevancia() throws CursorInvalidoException, RangoFechasInvalidoException {
+        when(busquedaEventos.buscarIds(List.of("yoga", "día"), null, null, null, 0, 3)).thenReturn(List.of(3L, 1L, 2L));
+        when(eventoRepositorio.findAllById(List.of(3L, 1L))).thenReturn(List.of(eventoConId(1L), eventoConId(3L)));
+
+        PaginaEventos pagina = eventoServicio.buscarEventos("Yoga, DÍA!", null, null, null, null, 2);
+        assertEquals(List.of(3L, 1L), pagina.getEventos().stream().map(Evento::getId).toList());
+        assertNotNull(pagina.getSiguienteCursor());
+
+        when(busquedaEventos.buscarIds(List.of("yoga", "día"), null, null, null, 2, 3)).thenReturn(List.of());
+        assertNull(eventoServicio.buscarEventos("yoga día", null, null, null, pagina.getSiguienteCursor(), 2).getSiguienteCursor());
+
+        assertTrue(eventoServicio.buscarEventos("  !? ", null, null, null, null, 2).getEventos().isEmpty());
+        String cursorPorId = paginaPorIdConCursor().getSiguienteCursor();
+        assertThrows(CursorInvalidoException.class, () -> eventoServicio.buscarEventos("yoga", null, null, null, cursorPorId, 2));
+    }
+
+    @Test
+    void crearEventoSinConflictosRechazaReunionesSolapadas() {
+        Date inicio = new Date(1_000_000L);
+        Evento reunion = new Evento(null, "reunion", null, inicio, 30L, null, List.of("email1"),
+                TipoEvento.REUNION, null, true, null, null, null, null, null);
+        when(eventoRepositorio.findSolapados(List.of("email1"), inicio, new Date(1_000_000L + 30 * 60_000L), null))
+                .thenReturn(List.of(eventoConId(7L)));
+
+        assertThrows(ConflictoHorarioException.class, () -> eventoServicio.crearEventoSinConflictos(reunion));
+        verify(eventoRepositorio, never()).save(any());
+    }
+
+    @Test
+    void crearEventoSinConflictosSoloValidaReuniones() throws ConflictoHorarioException {
+        Evento evento = new Evento(null, "evento", null, new Date(), 30L, null, List.of("email1"),
+                TipoEvento.EVENTO, null, true, null, null, null, null, null);
+        when(eventoRepositorio.save(evento)).thenReturn(evento);
+
+        assertSame(evento, eventoServicio.crearEventoSinConflictos(evento));
+        verify(eventoRepositorio, never()).findSolapados(any(), any(), any(), any());
+    }
+
+    @Test
+    void getOcupacionUneLosIntervalosYLosRecorta() throws RangoFechasInvalidoException, LoteDemasiadoGrandeException {
+        Date desde = new Date(100);
+        Date hasta = new Date(1000);
+        when(eventoRepositorio.findIntervalosOcupados(List.of("email1", "email2"), desde, hasta)).thenReturn(List.of(
+                new IntervaloOcupado(new Date(500), new Date(600)),
+                new IntervaloOcupado(new Date(50), new Date(200)),
+                new IntervaloOcupado(new Date(200), new Date(300)),
+                new IntervaloOcupado(new Date(250), new Date(280)),
+                new IntervaloOcupado(new Date(700), new Date(700)),
+                new IntervaloOcupado(new Date(900), new Date(1200))));
+
+        List<IntervaloOcupado> bloques = eventoServicio.getOcupacion(List.of("email1", "email2", "email1"), desde, hasta);
+        assertEquals(List.of(
+                new IntervaloOcupado(new Date(100), new Date(300)),
+                new IntervaloOcupado(new Date(500), new Date(600)),
+                new IntervaloOcupado(new Date(900), new Date(1000))), bloques);
+
+        assertThrows(RangoFechasInvalidoException.class, () -> eventoServicio.getOcupacion(List.of("email1"), hasta, desde));
+    }
+
+    @Test
+    void getOcurrenciasExpandeLasSeriesSoloEnElRangoYAplicaLasExcepciones() throws RangoFechasInvalidoException {
+        Evento serie = eventoConId(5L);
+        serie.setFecha(fecha(2025, 1, 6, 10));
+        serie.setDuracion(60L);
+        serie.setRecurrencia("FREQ=WEEKLY;BYDAY=MO,WE");
+        Date desde = fecha(2025, 3, 3, 0);
+        Date hasta = fecha(2025, 3, 10, 0);
+        ExcepcionOcurrencia cancelada = ExcepcionOcurrencia.builder().eventoId(5L).fechaOriginal(fecha(2025, 3, 3, 10))
+                .fecha(fecha(2025, 3, 3, 10)).fechaFin(fecha(2025, 3, 3, 11)).cancelada(true).build();
+        ExcepcionOcurrencia movida = ExcepcionOcurrencia.builder().eventoId(5L).fechaOriginal(fecha(2025, 3, 12, 10))
+                .fecha(fecha(2025, 3, 7, 16)).fechaFin(fecha(2025, 3, 7, 17)).cancelada(false).titulo("Movida").build();
+        Evento unico = eventoConId(9L);
+        unico.setFecha(fecha(2025, 3, 4, 9));
+        when(eventoRepositorio.findUnicosEnRango(desde, hasta, null, null)).thenReturn(List.of(unico));
+        when(eventoRepositorio.findSeriesEnRango(desde, hasta, null, null)).thenReturn(List.of(serie));
+        when(excepcionRepositorio.findEnRango(List.of(5L), fecha(2025, 3, 2, 23), desde, hasta)).thenReturn(List.of(cancelada, movida));
+
+        List<Ocurrencia> ocurrencias = eventoServicio.getOcurrencias(desde, hasta, null, null);
+        assertEquals(List.of(fecha(2025, 3, 4, 9), fecha(2025, 3, 5, 10), fecha(2025, 3, 7, 16)),
+                ocurrencias.stream().map(Ocurrencia::fecha).toList());
+        assertNull(ocurrencias.get(0).fechaOriginal());
+        assertEquals("Movida", ocurrencias.get(2).titulo());
+        assertEquals(fecha(2025, 3, 12, 10), ocurrencias.get(2).fechaOriginal());
+
+        assertThrows(RangoFechasInvalidoException.class, () -> eventoServicio.getOcurrencias(desde, fecha(2026, 3, 10, 0), null, null));
+    }
+
+    @Test
+    void editarOcurrenciaSoloAceptaFechasDeLaRegla() throws OcurrenciaNoEncontradaException {
+        Evento serie = eventoConId(5L);
+        serie.setFecha(fecha(2025, 1, 6, 10));
+        serie.setRecurrencia("FREQ=DAILY;COUNT=10");
+        when(eventoRepositorio.findById(5L)).thenReturn(Optional.of(serie));
+        ExcepcionOcurrencia fueraDeLaRegla = ExcepcionOcurrencia.builder().fechaOriginal(fecha(2025, 1, 6, 11)).cancelada(true).build();
+        ExcepcionOcurrencia despuesDelFin = ExcepcionOcurrencia.builder().fechaOriginal(fecha(2025, 1, 16, 10)).cancelada(true).build();
+        assertThrows(OcurrenciaNoEncontradaException.class, () -> eventoServicio.editarOcurrencia(5L, fueraDeLaRegla));
+        assertThrows(OcurrenciaNoEncontradaException.class, () -> eventoServicio.editarOcurrencia(5L, despuesDelFin));
+
+        Date original = fecha(2025, 1, 15, 10);
+        when(excepcionRepositorio.findByEventoIdAndFechaOriginal(5L, original)).thenReturn(Optional.empty());
+        eventoServicio.editarOcurrencia(5L, ExcepcionOcurrencia.builder().fechaOriginal(original).cancelada(true).build());
+
+        ArgumentCaptor<ExcepcionOcurrencia> captor = ArgumentCaptor.forClass(ExcepcionOcurrencia.class);
+        verify(excepcionRepositorio).save(captor.capture());
+        assertTrue(captor.getValue().getCancelada());
+        assertEquals(original, captor.getValue().getFecha());
+        verify(feedCambios).publicar(TipoCambioEvento.MODIFICADO, serie);
+    }
+
+    @Test
+    void getCamposEventosRechazaCamposDesconocidos() {
+        assertThrows(CampoDesconocidoException.class, () -> eventoServicio.getCamposEventos(List.of("id", "version")));
+        assertThrows(CampoDesconocidoException.class, () -> eventoServicio.getCamposEventos(List.of()));
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void editarParcialEventoCancelarTest() throws FormatoFechaInvalidoException, CampoNoEditableException {
         when(eventoRepositorio.findById(1L)).thenReturn(Optional.of(new Evento(1L,"titulo", "descripcion", new Date(),
-                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true)));
-        Mockito.doNothing().when(servicioEmail).enviarEmailCancelacion(any(),any());
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null)));
         Evento eventoCancelado = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", false);
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", false, 0L, null, null, null, null);
         when(eventoRepositorio.save(any())).thenReturn(eventoCancelado);
 
         eventoCancelado = eventoServicio.editarParcialEvento(1L, Map.of("activo", false));
         assertNotNull(eventoCancelado);
         assertFalse(eventoCancelado.getActivo());
+        assertNotificacionesEncoladas(TipoNotificacion.CANCELACION);
+        verify(feedCambios).publicar(eq(TipoCambioEvento.CANCELADO), any());
+        ArgumentCaptor<EstadisticasEventos.Aporte> anterior = ArgumentCaptor.forClass(EstadisticasEventos.Aporte.class);
+        ArgumentCaptor<EstadisticasEventos.Aporte> nuevo = ArgumentCaptor.forClass(EstadisticasEventos.Aporte.class);
+        verify(estadisticas).registrar(anterior.capture(), nuevo.capture());
+        assertTrue(anterior.getValue().activo());
+        assertFalse(nuevo.getValue().activo());
+        assertEquals(1000L, nuevo.getValue().costo());
 
         assertNull(eventoServicio.getEventoById(2L));
     }
 
     @Test
-    void editarParcialEventoTest() throws FormatoFechaInvalidoException {
+    void getEstadisticasValidaElRangoDeMeses() throws RangoFechasInvalidoException {
+        when(estadisticaRepositorio.findEnRango(202411, 202502, TipoEvento.REUNION)).thenReturn(List.of());
+        assertEquals(List.of(), eventoServicio.getEstadisticas(202411, 202502, TipoEvento.REUNION));
+        assertThrows(RangoFechasInvalidoException.class, () -> eventoServicio.getEstadisticas(202503, 202502, null));
+        assertThrows(RangoFechasInvalidoException.class, () -> eventoServicio.getEstadisticas(201501, 202501, null));
+    }
+
+    @Test
+    void editarParcialEventoTest() throws FormatoFechaInvalidoException, CampoNoEditableException {
         when(eventoRepositorio.findById(1L)).thenReturn(Optional.of(new Evento(1L,"titulo", "descripcion", new Date(),
-                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true)));
-        Mockito.doNothing().when(servicioEmail).enviarEmailModificacion(any(),any());
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null)));
         Evento eventoEditado = new Evento(1L, "titulo", "descripcion", new Date(),
-                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", false);
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", false, 0L, null, null, null, null);
         when(eventoRepositorio.save(any())).thenReturn(eventoEditado);
 
         eventoEditado = eventoServicio.editarParcialEvento(1L, Map.of("titulo", "tituloEditado"));
         assertNotNull(eventoEditado);
         assertFalse(eventoEditado.getActivo());
+        assertNotificacionesEncoladas(TipoNotificacion.MODIFICACION);
+        verify(feedCambios).publicar(eq(TipoCambioEvento.MODIFICADO), any());
 
         assertNull(eventoServicio.getEventoById(2L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void editarParcialEventoConvierteCampos() throws FormatoFechaInvalidoException, CampoNoEditableException {
+        when(eventoRepositorio.findById(1L)).thenReturn(Optional.of(eventoConId(1L)));
+        when(eventoRepositorio.save(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        Evento editado = eventoServicio.editarParcialEvento(1L, Map.of("duracion", "90", "tipo", "REUNION",
+                "asistentes", List.of("email1")));
+        assertEquals(90L, editado.getDuracion());
+        assertEquals(TipoEvento.REUNION, editado.getTipo());
+        assertEquals(List.of("email1"), editado.getAsistentes());
+        assertEquals(1L, editado.getId());
+    }
+
+    @Test
+    void editarParcialEventoSinCambiosNoNotifica() throws FormatoFechaInvalidoException, CampoNoEditableException {
+        Evento evento = new Evento(1L, "titulo", "descripcion", new Date(),
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
+        when(eventoRepositorio.findById(1L)).thenReturn(Optional.of(evento));
+        when(eventoRepositorio.save(any())).thenReturn(evento);
+
+        eventoServicio.editarParcialEvento(1L, Map.of("titulo", "titulo", "costo", 1000));
+        verify(notificacionRepositorio, never()).saveAll(any());
+    }
+
+    @Test
+    void editarParcialEventoRechazaCamposNoEditables() {
+        assertThrows(CampoNoEditableException.class, () -> eventoServicio.editarParcialEvento(1L, Map.of("id", 5L)));
+        assertThrows(CampoNoEditableException.class, () -> eventoServicio.editarParcialEvento(1L, Map.of("desconocido", "x")));
+        verifyNoInteractions(eventoRepositorio);
+    }
+
+    @Test
+    void editarParcialEventoRechazaValoresInvalidos() {
+        when(eventoRepositorio.findById(1L)).thenReturn(Optional.of(eventoConId(1L)));
+        assertThrows(CampoNoEditableException.class, () -> eventoServicio.editarParcialEvento(1L, Map.of("tipo", "FIESTA")));
+        assertThrows(CampoNoEditableException.class, () -> eventoServicio.editarParcialEvento(1L, Map.of("duracion", "mucho")));
+        assertThrows(FormatoFechaInvalidoException.class, () -> eventoServicio.editarParcialEvento(1L, Map.of("fecha", "ayer")));
+    }
+
+    @Test
+    void crearEventosInformaCadaElemento() throws LoteDemasiadoGrandeException {
+        when(eventoRepositorio.save(any())).thenAnswer(invocacion -> {
+            Evento evento = invocacion.getArgument(0);
+            evento.setId(10L);
+            return evento;
+        });
+
+        List<Evento> eventos = new ArrayList<>();
+        eventos.add(eventoConId(5L));
+        eventos.add(null);
+        List<ResultadoLote> resultados = eventoServicio.crearEventos(eventos);
+        assertTrue(resultados.get(0).isExitoso());
+        assertEquals(10L, resultados.get(0).getId());
+        assertFalse(resultados.get(1).isExitoso());
+        assertEquals(1, resultados.get(1).getIndice());
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void crearEventosRechazaLotesGrandes() {
+        List<Evento> eventos = new ArrayList<>();
+        for (int i = 0; i <= EventoServicioImpl.TAMANO_LOTE_MAXIMO; i++) {
+            eventos.add(new Evento());
+        }
+        assertThrows(LoteDemasiadoGrandeException.class, () -> eventoServicio.crearEventos(eventos));
+        verifyNoInteractions(eventoRepositorio);
+    }
+
+    @Test
+    void editarEventosInformaNoEncontrados() throws LoteDemasiadoGrandeException {
+        Evento existente = eventoConId(1L);
+        when(eventoRepositorio.findAllById(List.of(1L, 2L))).thenReturn(List.of(existente));
+        Evento editado = eventoConId(1L);
+        editado.setTitulo("tituloEditado");
+        editado.setActivo(null);
+
+        List<ResultadoLote> resultados = eventoServicio.editarEventos(List.of(editado, eventoConId(2L)));
+        assertTrue(resultados.get(0).isExitoso());
+        assertEquals("tituloEditado", existente.getTitulo());
+        assertTrue(existente.getActivo());
+        assertFalse(resultados.get(1).isExitoso());
+        assertEquals(2L, resultados.get(1).getId());
+    }
+
+    @Test
+    void cancelarEventosEncolaNotificaciones() throws LoteDemasiadoGrandeException {
+        Evento activo = new Evento(1L, "titulo", "descripcion", new Date(),
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
+        Evento cancelado = new Evento(2L, "titulo", "descripcion", new Date(),
+                2L, 1000L, List.of("email3"), TipoEvento.EVENTO, "rojo", false, 0L, null, null, null, null);
+        when(eventoRepositorio.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(activo, cancelado));
+
+        List<ResultadoLote> resultados = eventoServicio.cancelarEventos(List.of(1L, 2L, 3L));
+        assertEquals(List.of(true, true, false), resultados.stream().map(ResultadoLote::isExitoso).toList());
+        assertFalse(activo.getActivo());
+        assertNotificacionesEncoladas(TipoNotificacion.CANCELACION);
+        verify(programadorRecordatorios).quitar(1L);
+    }
+
+    @Test
+    void enviarRecordatoriosEncolaSoloLosVigentes() {
+        Date fecha = new Date(System.currentTimeMillis() + 3_600_000L);
+        Evento vigente = new Evento(1L, "titulo", "descripcion", fecha,
+                2L, 1000L, List.of("email1", "email2"), TipoEvento.EVENTO, "rojo", true, 3L, null, null, null, null);
+        Evento editado = new Evento(2L, "titulo", "descripcion", fecha,
+                2L, 1000L, List.of("email3"), TipoEvento.EVENTO, "rojo", true, 5L, null, null, null, null);
+        when(eventoRepositorio.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(vigente, editado));
+        when(eventoRepositorio.marcarRecordatorio(1L, fecha)).thenReturn(1);
+
+        int enviados = eventoServicio.enviarRecordatorios(List.of(
+                new ProgramadorRecordatorios.Recordatorio(0L, 1L, 3L, fecha, "titulo"),
+                new ProgramadorRecordatorios.Recordatorio(0L, 2L, 4L, fecha, "titulo"),
+                new ProgramadorRecordatorios.Recordatorio(0L, 3L, 0L, fecha, "eliminado")));
+
+        assertEquals(2, enviados);
+        assertNotificacionesEncoladas(TipoNotificacion.RECORDATORIO);
+        // El evento editado despues de programarse no se marca: se vuelve a programar con su version actual
+        verify(eventoRepositorio, never()).marcarRecordatorio(eq(2L), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertNotificacionesEncoladas(TipoNotificacion tipo) {
+        ArgumentCaptor<List<NotificacionPendiente>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacionRepositorio).saveAll(captor.capture());
+        assertEquals(List.of("email1", "email2"), captor.getValue().stream().map(NotificacionPendiente::getDestinatario).toList());
+        assertTrue(captor.getValue().stream().allMatch(notificacion -> notificacion.getTipo() == tipo));
+    }
+
+    private PaginaEventos paginaPorIdConCursor() throws CursorInvalidoException {
+        when(eventoRepositorio.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(eventoConId(1L), eventoConId(2L)));
+        return eventoServicio.getPaginaEventos(OrdenEventos.ID, null, 1);
+    }
+
+    private static Date fecha(int anio, int mes, int dia, int hora) {
+        return Date.from(LocalDateTime.of(anio, mes, dia, hora, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private Evento eventoConId(Long id) {
+        return new Evento(id, "titulo", "descripcion", new Date(id * 1000),
+                2L, 1000L, List.of(), TipoEvento.EVENTO, "rojo", true, 0L, null, null, null, null);
+    }
+}
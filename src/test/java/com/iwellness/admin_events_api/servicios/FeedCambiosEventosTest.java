@@ -0,0 +1,106 @@
+package com.iwellness.admin_events_api.servicios;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedCambiosEventosTest {
+
+    private FeedCambiosEventos feed;
+
+    private String epoca;
+
+    @BeforeEach
+    void setUp() {
+        feed = new FeedCambiosEventos();
+        ReflectionTestUtils.setField(feed, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(feed, "tamanoHistorial", 3);
+        ReflectionTestUtils.setField(feed, "tamanoCola", 8);
+        ReflectionTestUtils.setField(feed, "hilos", 1);
+        feed.iniciar();
+        epoca = (String) ReflectionTestUtils.getField(feed, "epoca");
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.detener();
+    }
+
+    @Test
+    void retomaDesdeElUltimoIdRecibido() {
+        feed.publicar(TipoCambioEvento.CREADO, evento(1L));
+        feed.publicar(TipoCambioEvento.MODIFICADO, evento(1L));
+        feed.publicarEliminacion(1L);
+
+        List<FeedCambiosEventos.CambioEvento> cambios = feed.cambiosDesde(epoca + "-1");
+        assertEquals(List.of(2L, 3L), cambios.stream().map(FeedCambiosEventos.CambioEvento::secuencia).toList());
+        assertEquals("MODIFICADO", cambios.get(0).nombre());
+        assertTrue(cambios.get(0).datos().contains("\"titulo\":\"Evento 1\""));
+        assertEquals("ELIMINADO", cambios.get(1).nombre());
+        assertEquals("{\"id\":1}", cambios.get(1).datos());
+
+        assertTrue(feed.cambiosDesde(null).isEmpty());
+        assertTrue(feed.cambiosDesde(epoca + "-3").isEmpty());
+    }
+
+    @Test
+    void noRetomaFueraDelHistorialNiDeOtroArranque() {
+        for (long i = 1; i <= 5; i++) {
+            feed.publicar(TipoCambioEvento.CREADO, evento(i));
+        }
+        // El historial guarda solo las secuencias 3 a 5
+        assertNull(feed.cambiosDesde(epoca + "-1"));
+        assertEquals(3, feed.cambiosDesde(epoca + "-2").size());
+        assertNull(feed.cambiosDesde(epoca + "-9"));
+        assertNull(feed.cambiosDesde("otro-2"));
+        assertNull(feed.cambiosDesde("basura"));
+    }
+
+    @Test
+    void reiniciaSiLoPerdidoNoEntraEnLaCola() {
+        feed.detener();
+        ReflectionTestUtils.setField(feed, "tamanoHistorial", 20);
+        feed.iniciar();
+        for (long i = 1; i <= 12; i++) {
+            feed.publicar(TipoCambioEvento.CREADO, evento(i));
+        }
+        // La cola es de 8: desde la secuencia 4 faltan 8 y entran, desde la 1 faltan 11 y no
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L), feed.cambiosAlSuscribirse(epoca + "-4").stream()
+                .map(FeedCambiosEventos.CambioEvento::secuencia).toList());
+        assertEquals(11, feed.cambiosDesde(epoca + "-1").size());
+        List<FeedCambiosEventos.CambioEvento> cambios = feed.cambiosAlSuscribirse(epoca + "-1");
+        assertEquals(1, cambios.size());
+        assertEquals(FeedCambiosEventos.REINICIO, cambios.get(0).nombre());
+        assertEquals(12L, cambios.get(0).secuencia());
+        assertEquals(FeedCambiosEventos.REINICIO, feed.cambiosAlSuscribirse("otro-2").get(0).nombre());
+    }
+
+    @Test
+    void publicaRecienAlConfirmarLaTransaccion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.publicar(TipoCambioEvento.CANCELADO, evento(1L));
+            assertTrue(feed.cambiosDesde(epoca + "-0").isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals("CANCELADO", feed.cambiosDesde(epoca + "-0").get(0).nombre());
+    }
+
+    private Evento evento(Long id) {
+        return new Evento(id, "Evento " + id, "Descripcion", new Date(), 60L, 100L, List.of("a@correo.com"),
+                TipoEvento.EVENTO, "#ffffff", true, 0L, null, null, null, null);
+    }
+}
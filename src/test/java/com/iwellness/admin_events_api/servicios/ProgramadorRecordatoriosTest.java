@@ -0,0 +1,76 @@
+package com.iwellness.admin_events_api.servicios;
+
+import com.iwellness.admin_events_api.entidades.Evento;
+import com.iwellness.admin_events_api.entidades.TipoEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgramadorRecordatoriosTest {
+
+    private static final long HORA = 3_600_000L;
+
+    private ProgramadorRecordatorios programador;
+
+    private long ahora;
+
+    @BeforeEach
+    void setUp() {
+        programador = new ProgramadorRecordatorios();
+        ReflectionTestUtils.setField(programador, "habilitados", true);
+        ReflectionTestUtils.setField(programador, "anticipacionHoras", 24L);
+        ReflectionTestUtils.setField(programador, "horizonteMinutos", 60L);
+        ahora = System.currentTimeMillis();
+    }
+
+    @Test
+    void cargarSoloAgregaLasOcurrenciasPendientes() {
+        ProgramadorRecordatorios.Ventana ventana = programador.ventanaPorCargar(ahora);
+        assertEquals(ahora, ventana.desde().getTime());
+        assertEquals(ahora + 25 * HORA, ventana.hasta().getTime());
+
+        Evento proximo = evento(1L, ahora + 2 * HORA);
+        Evento yaRecordado = evento(2L, ahora + 3 * HORA);
+        yaRecordado.setRecordatorioEnviadoPara(yaRecordado.getFecha());
+        Evento lejano = evento(3L, ahora + 24 * HORA + 30 * 60_000L);
+        programador.cargar(List.of(Ocurrencia.unica(proximo), Ocurrencia.unica(yaRecordado), Ocurrencia.unica(lejano)), ventana);
+
+        // El proximo ya paso su momento de envio; el lejano vence en media hora
+        List<ProgramadorRecordatorios.Recordatorio> vencidos = programador.extraerVencidos(ahora, 10);
+        assertEquals(List.of(1L), vencidos.stream().map(ProgramadorRecordatorios.Recordatorio::idEvento).toList());
+        assertEquals(List.of(3L), programador.extraerVencidos(ahora + HORA, 10).stream()
+                .map(ProgramadorRecordatorios.Recordatorio::idEvento).toList());
+        assertNull(programador.ventanaPorCargar(ahora + 10 * 60_000L));
+        assertEquals(ventana.hasta(), programador.ventanaPorCargar(ahora + HORA).desde());
+    }
+
+    @Test
+    void programarReemplazaLosRecordatoriosDelEvento() {
+        programador.programar(evento(1L, ahora + 2 * HORA), List.of());
+        assertTrue(programador.extraerVencidos(ahora, 10).isEmpty());
+
+        programador.cargar(List.of(), programador.ventanaPorCargar(ahora));
+        Evento evento = evento(1L, ahora + 2 * HORA);
+        programador.programar(evento, List.of(Ocurrencia.unica(evento)));
+        Evento movido = evento(1L, ahora + 4 * HORA);
+        programador.programar(movido, List.of(Ocurrencia.unica(movido)));
+
+        List<ProgramadorRecordatorios.Recordatorio> vencidos = programador.extraerVencidos(ahora, 10);
+        assertEquals(1, vencidos.size());
+        assertEquals(movido.getFecha(), vencidos.get(0).fecha());
+
+        programador.programar(movido, List.of(Ocurrencia.unica(movido)));
+        programador.quitar(1L);
+        assertTrue(programador.extraerVencidos(ahora, 10).isEmpty());
+    }
+
+    private static Evento evento(Long id, long fecha) {
+        return new Evento(id, "titulo", null, new Date(fecha), 30L, null, List.of("email1"), TipoEvento.EVENTO, "rojo",
+                true, 0L, null, null, null, null);
+    }
+}